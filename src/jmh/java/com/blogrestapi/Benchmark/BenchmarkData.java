@@ -0,0 +1,42 @@
+package com.blogrestapi.Benchmark;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.blogrestapi.Entity.Category;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.User;
+
+//a post shaped like the ones the API returns: a few hundred characters of content, an image with its variants
+final class BenchmarkData {
+    private static final String CONTENT = "Benchmark content. ".repeat(40);
+
+    private BenchmarkData() {
+    }
+
+    static Post post(int id) {
+        Post post = new Post();
+        post.setPostId(id);
+        post.setPostTitle("Benchmark post " + id);
+        post.setContent(CONTENT);
+        String hash = String.format("%064x", id);
+        post.setImage(hash + ".png");
+        Map<String, String> variants = new LinkedHashMap<>();
+        variants.put("thumb", hash + "_thumb.png");
+        variants.put("medium", hash + "_medium.png");
+        post.setImageVariants(variants);
+        post.setPostDate(new Date());
+        User user = new User();
+        user.setId(2);
+        post.setUser(user);
+        post.setUserId(2);
+        Category category = new Category();
+        category.setCategoryId(3);
+        post.setCategory(category);
+        post.setCategoryId(3);
+        post.setLikeCount(id % 100);
+        post.setDislikeCount(id % 7);
+        return post;
+    }
+}
@@ -0,0 +1,131 @@
+package com.blogrestapi.Benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+//the request shape of getAllPost/getPostById/deletePostById: a request thread hands the Mongo call to
+//the @Async executor and join()s it. Each invocation pushes `requests` such requests through at once and
+//waits for all of them; the blocking call is a sleep of ioMillis standing in for the database round trip.
+//platform: Tomcat's default 200 request threads + Boot's default 8-thread @Async pool.
+//virtual: a virtual thread per request and per @Async call (needs Java 21).
+//pinned=true does the blocking call inside synchronized, which pins a virtual thread to its carrier.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ExecutionModeBenchmark {
+    @Param({"platform", "virtual"})
+    public String mode;
+    @Param({"1000"})
+    public int requests;
+    @Param({"5"})
+    public int ioMillis;
+    @Param({"false", "true"})
+    public boolean pinned;
+
+    private AsyncTaskExecutor requestExecutor;
+    private AsyncTaskExecutor asyncExecutor;
+    // one uncontended monitor per request; fields, so the JIT cannot elide the locking
+    private Object[] monitors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.monitors = new Object[this.requests];
+        for (int i = 0; i < this.requests; i++) {
+            this.monitors[i] = new Object();
+        }
+        if ("virtual".equals(this.mode)) {
+            this.requestExecutor = virtualThreads("request-");
+            this.asyncExecutor = virtualThreads("task-");
+        } else {
+            this.requestExecutor = pool("request-", 200);
+            this.asyncExecutor = pool("task-", 8);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (AsyncTaskExecutor executor : new AsyncTaskExecutor[] {this.requestExecutor, this.asyncExecutor}) {
+            if (executor instanceof ThreadPoolTaskExecutor pool) {
+                pool.shutdown();
+            } else if (executor instanceof SimpleAsyncTaskExecutor simple) {
+                simple.close();
+            }
+        }
+    }
+
+    //one invocation = `requests` concurrent requests, so requests/s = score * requests
+    @Benchmark
+    public void concurrentRequests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(this.requests);
+        for (int i = 0; i < this.requests; i++) {
+            Object monitor = this.monitors[i];
+            this.requestExecutor.execute(() -> {
+                try {
+                    CompletableFuture.supplyAsync(() -> databaseCall(monitor), this.asyncExecutor).join();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private int databaseCall(Object monitor) {
+        if (this.pinned) {
+            synchronized (monitor) {
+                return block();
+            }
+        }
+        return block();
+    }
+
+    private int block() {
+        try {
+            Thread.sleep(this.ioMillis);
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private static ThreadPoolTaskExecutor pool(String prefix, int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(prefix);
+        executor.initialize();
+        return executor;
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreads(String prefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+        try {
+            executor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalStateException("mode=virtual needs Java 21 or newer", e);
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,84 @@
+package com.blogrestapi.Benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blogrestapi.Security.JWTTokenHelper;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+
+//what JwtAuthencticationFilter pays per request to trust a bearer token.
+//verifyCached is the filter's path once a token has been seen; parseAndVerify is the first request
+//with a token (HMAC check + JSON parse); tokenHash is the sha-256 both the cache and the blacklist key on.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    private JWTTokenHelper jwtTokenHelper;
+    private JwtParser parser;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        String secret = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS512).getEncoded());
+        this.jwtTokenHelper = new JWTTokenHelper();
+        this.jwtTokenHelper.secret = secret;
+        this.jwtTokenHelper.JWT_TOKEN_VALIDITY = TimeUnit.HOURS.toMillis(5);
+        ReflectionTestUtils.setField(this.jwtTokenHelper, "verifiedCacheSize", 10000L);
+        ReflectionTestUtils.invokeMethod(this.jwtTokenHelper, "init");
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build();
+        this.userDetails = User.withUsername("benchmark@example.com").password("x").authorities("ROLE_USER").build();
+        this.token = this.jwtTokenHelper.generateToken(this.userDetails);
+        this.jwtTokenHelper.verifyToken(this.token);
+    }
+
+    @Benchmark
+    public Claims parseAndVerify() {
+        return this.parser.parseClaimsJws(this.token).getBody();
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return this.jwtTokenHelper.verifyToken(this.token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return this.jwtTokenHelper.validateToken(this.token, this.userDetails);
+    }
+
+    @Benchmark
+    public String tokenHash() {
+        return JWTTokenHelper.tokenHash(this.token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return this.jwtTokenHelper.generateToken(this.userDetails);
+    }
+}
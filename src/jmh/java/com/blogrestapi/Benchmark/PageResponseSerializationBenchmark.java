@@ -0,0 +1,55 @@
+package com.blogrestapi.Benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.blogrestapi.DTO.PageResponse;
+import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.Mapper.PostMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//the body of GET /api/posts: a PageResponse<PostDTO> written to bytes.
+//The ObjectMapper is built the way @EnableWebMvc builds the one behind its Jackson message converter.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageResponseSerializationBenchmark {
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageResponse<PostDTO> page;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        PostMapper postMapper = new PostMapper();
+        List<PostDTO> posts = IntStream.rangeClosed(1, this.pageSize)
+                .mapToObj(id -> postMapper.toDTO(BenchmarkData.post(id)))
+                .toList();
+        this.page = new PageResponse<>("OK(200)", posts, this.pageSize, 0, 10, this.pageSize * 10L, false);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.page);
+    }
+}
@@ -0,0 +1,56 @@
+package com.blogrestapi.Benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Mapper.PostMapper;
+
+//Post -> PostDTO, once per post on every list/detail response.
+//modelMapper is configured as the bean PostMapper replaced (see MapperEquivalenceTest).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostMappingBenchmark {
+    private ModelMapper modelMapper;
+    private PostMapper postMapper;
+    private Post post;
+
+    @Setup
+    public void setUp() {
+        this.modelMapper = new ModelMapper();
+        this.modelMapper.emptyTypeMap(Post.class, PostDTO.class)
+                .addMappings(mapper -> {
+                    mapper.map(Post::getUserId, PostDTO::setUserId);
+                    mapper.map(Post::getCategoryId, PostDTO::setCategoryId);
+                })
+                .implicitMappings();
+        this.postMapper = new PostMapper();
+        this.post = BenchmarkData.post(1);
+    }
+
+    @Benchmark
+    public PostDTO modelMapper() {
+        return this.modelMapper.map(this.post, PostDTO.class);
+    }
+
+    @Benchmark
+    public PostDTO postMapper() {
+        return this.postMapper.toDTO(this.post);
+    }
+}
@@ -0,0 +1,92 @@
+package com.blogrestapi.Benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.blogrestapi.Security.JWTTokenHelper;
+import com.blogrestapi.ServiceImpl.TokenBlackListServiceImpl;
+
+//isTokenBlackListed, called by the auth filter on every authenticated request, with `revoked` tokens
+//already in the blacklist. notRevoked is the common case and should stay flat as the set grows until
+//the Bloom filter (bloom-bits/bloom-hashes as in application.yml) fills up; revoked always reaches the map.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBlackListBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"0", "1000", "100000", "1000000"})
+    public int revoked;
+    @Param({"1048576"})
+    public int bloomBits;
+    @Param({"5"})
+    public int bloomHashes;
+
+    private TokenBlackListServiceImpl tokenBlackListService;
+    private String[] revokedTokens;
+    private String[] validTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        this.tokenBlackListService = new TokenBlackListServiceImpl();
+        ReflectionTestUtils.setField(this.tokenBlackListService, "bloomBits", this.bloomBits);
+        ReflectionTestUtils.setField(this.tokenBlackListService, "bloomHashes", this.bloomHashes);
+        ReflectionTestUtils.invokeMethod(this.tokenBlackListService, "init");
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(5);
+        this.revokedTokens = new String[Math.min(PROBES, this.revoked)];
+        for (int i = 0; i < this.revoked; i++) {
+            String token = token("revoked", i);
+            // blackListToken() would verify a real JWT and write to Mongo; only the in-memory state matters here
+            ReflectionTestUtils.invokeMethod(this.tokenBlackListService, "remember",
+                    JWTTokenHelper.tokenHash(token), expiresAt);
+            if (i < this.revokedTokens.length) {
+                this.revokedTokens[i] = token;
+            }
+        }
+        this.validTokens = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            this.validTokens[i] = token("valid", i);
+        }
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return this.tokenBlackListService.isTokenBlackListed(this.validTokens[nextIndex(this.validTokens.length)]);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        if (this.revokedTokens.length == 0) {
+            return false;
+        }
+        return this.tokenBlackListService.isTokenBlackListed(this.revokedTokens[nextIndex(this.revokedTokens.length)]);
+    }
+
+    private int nextIndex(int length) {
+        int index = this.next;
+        this.next = index + 1 == length ? 0 : index + 1;
+        return index;
+    }
+
+    //random-looking, JWT-sized strings; only their sha-256 is ever used
+    private static String token(String kind, int i) {
+        return kind + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + "." + i + "a".repeat(150);
+    }
+}
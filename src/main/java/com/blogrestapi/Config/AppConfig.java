@@ -1,7 +1,6 @@
 package com.blogrestapi.Config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -16,10 +15,6 @@ public class AppConfig {
         return  new BCryptPasswordEncoder();
     }
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-    @Bean
     public ObjectMapper objectMapper(){return new ObjectMapper();}
 
 
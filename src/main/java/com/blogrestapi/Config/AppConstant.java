@@ -5,6 +5,14 @@ public class AppConstant {
     public static final String PAGE_SIZE="5";
     public static final String SORT_BY="postId";
     public static final String SORT_DIR ="ascending";
+    public static final String VIEW_FULL = "full";
+    public static final String VIEW_SUMMARY = "summary";
+    public static final String TRENDING_LIMIT = "10";
     public static final Integer NORMAL_USER=2;
     public static final Integer ADMIN_USER=1;
+    public static final String CACHE_ALL_POSTS ="cacheAllPosts";
+    public static final String CACHE_POST = "cachePost";
+    public static final String CACHE_POST_BY_USERID = "cachePostByUserId";
+    public static final String CACHE_POST_BY_CATEGORYID = "cachePostByCategoryId";
+    public static final String CACHE_AUTH_PRINCIPAL = "cacheAuthPrincipal";
 }
@@ -0,0 +1,56 @@
+package com.blogrestapi.Config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.blogrestapi.DTO.PageResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Data;
+
+//bounded W-TinyLFU caches (Caffeine) instead of the unbounded ConcurrentMapCache fallback.
+//Every cache is sized and expired by its spec in application.yml; "recordStats" in a spec
+//makes actuator publish cache.gets{result=hit|miss}, cache.evictions and cache.size for it.
+@Configuration
+@EnableConfigurationProperties(CacheConfig.CacheSpecProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // @Cacheable methods returning CompletableFuture need an AsyncCache underneath
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.setCacheSpecification(properties.getDefaultSpec());
+        properties.getSpecs().forEach((name, spec) ->
+                cacheManager.registerCustomCache(name, builder(spec).buildAsync()));
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(String spec) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        if (spec.contains("maximumWeight")) {
+            // a page weighs as many entries as it holds, so the bound tracks retained DTOs
+            builder.weigher((Object key, Object value) ->
+                    value instanceof PageResponse<?> page && page.getData() != null
+                            ? Math.max(1, page.getData().size())
+                            : 1);
+        }
+        return builder;
+    }
+
+    @Data
+    @ConfigurationProperties(prefix = "cache")
+    public static class CacheSpecProperties {
+        //applied to any cache that has no entry in specs
+        private String defaultSpec = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+        //cache name -> Caffeine spec, e.g. maximumSize=500,expireAfterWrite=5m,recordStats
+        private Map<String, String> specs = new LinkedHashMap<>();
+    }
+}
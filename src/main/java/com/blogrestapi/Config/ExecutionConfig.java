@@ -0,0 +1,31 @@
+package com.blogrestapi.Config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+//the executor behind @Async service methods, picked by spring.threads.virtual.enabled.
+//Platform: the bounded pool sized by spring.task.execution.pool.*. Virtual (Java 21+ only, the
+//property is ignored on older runtimes): one virtual thread per call, so a caller blocked on
+//Mongo no longer ties up a platform thread. Tomcat's request threads follow the same property.
+//Declared here because the imageVariantExecutor bean would otherwise make Boot back off from its own.
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.blogrestapi.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Entity.Comment;
+import com.blogrestapi.Entity.DisLike;
+import com.blogrestapi.Entity.Like;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.RevokedToken;
+import com.blogrestapi.Entity.StoredFile;
+import com.blogrestapi.Entity.User;
+import com.mongodb.DBRef;
+import com.mongodb.MongoCommandException;
+
+//creates the indexes behind the repository queries the app runs on every request, then
+//asks the server (explain) how each of those query shapes would execute and warns about
+//any that would still scan the whole collection. These only make queries fast, so they are
+//built in the background; the unique ones are UniqueIndexInitializer's, before startup completes
+@Component
+public class MongoIndexInitializer {
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+    private static final int COMMAND_NOT_FOUND = 59;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            ensureIndexes();
+            verifyQueryPlans();
+        } catch (RuntimeException e) {
+            log.warn("Index bootstrap failed: {}", e.getMessage());
+        }
+    }
+
+    private void ensureIndexes() {
+        // feed filters followed by the id tiebreaker the offset and cursor pages sort on
+        ensure(Post.class, new Index().on("userId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named("userId_id"));
+        ensure(Post.class, new Index().on("categoryId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named("categoryId_id"));
+        ensure(Post.class, new Index().on("postDate", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named("postDate_id"));
+        ensure(Comment.class, new Index().on("post", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named("post_id"));
+        // threads: the top-level comments or direct replies of a node in path order, and whole subtrees
+        // as one path range
+        ensure(Comment.class, new Index().on("postId", Sort.Direction.ASC).on("parentId", Sort.Direction.ASC)
+                .on("path", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("postId_parentId_path_id"));
+        ensure(Comment.class, new Index().on("postId", Sort.Direction.ASC).on("path", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC).named("postId_path_id"));
+        // revoked tokens delete themselves at the token's exp; revokedAt serves the blacklist sync poll
+        ensure(RevokedToken.class, new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO)
+                .named("expiresAt_ttl"));
+        ensure(RevokedToken.class, new Index().on("revokedAt", Sort.Direction.ASC).named("revokedAt"));
+        // the image collector looks for files whose references dropped to zero a while ago
+        ensure(StoredFile.class, new Index().on("refCount", Sort.Direction.ASC).on("updatedAt", Sort.Direction.ASC)
+                .named("refCount_updatedAt"));
+    }
+
+    //one failing index must not stop the rest
+    private void ensure(Class<?> entity, Index index) {
+        try {
+            this.mongoTemplate.indexOps(entity).ensureIndex(index);
+        } catch (RuntimeException e) {
+            log.warn("Could not create index {} on {}: {}", index.getIndexKeys(),
+                    this.mongoTemplate.getCollectionName(entity), e.getMessage());
+        }
+    }
+
+    private void verifyQueryPlans() {
+        DBRef post = new DBRef("posts", 0);
+        DBRef user = new DBRef("users", 0);
+        Document byId = new Document("_id", 1);
+        List<Probe> probes = new ArrayList<>();
+        probes.add(new Probe("LikeDao.findByUserAndPost", Like.class, new Document("user", user).append("post", post), null));
+        probes.add(new Probe("LikeDao.countByPost", Like.class, new Document("post", post), null));
+        probes.add(new Probe("DisLikeDao.findByUserAndPost", DisLike.class, new Document("user", user).append("post", post), null));
+        probes.add(new Probe("DisLikeDao.countByPost", DisLike.class, new Document("post", post), null));
+        probes.add(new Probe("PostDao.findPostByUserId", Post.class, new Document("userId", 0), byId));
+        probes.add(new Probe("PostDao.findPostByCategoryId", Post.class, new Document("categoryId", 0), byId));
+        probes.add(new Probe("posts sorted by postDate", Post.class, new Document(), new Document("postDate", -1).append("_id", -1)));
+        probes.add(new Probe("CommentDao.findCommentByPost", Comment.class, new Document("post", post), byId));
+        Document byPath = new Document("path", 1).append("_id", 1);
+        probes.add(new Probe("comment threads", Comment.class, new Document("postId", 0).append("parentId", 0), byPath));
+        probes.add(new Probe("comment subtree", Comment.class, new Document("postId", 0)
+                .append("path", new Document("$gt", "0000000000/").append("$lt", "00000000000")), byPath));
+        probes.add(new Probe("UserDao.findByUsername", User.class, new Document("username", ""), null));
+        probes.add(new Probe("UserDao.existsByEmail", User.class, new Document("email", ""), null));
+        for (Probe probe : probes) {
+            try {
+                explain(probe);
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == COMMAND_NOT_FOUND) {
+                    // e.g. an embedded or proxy server without explain: nothing to verify against
+                    log.info("Server does not support explain, skipping query plan verification");
+                    return;
+                }
+                log.warn("Could not explain {}: {}", probe.queryName(), e.getErrorMessage());
+            }
+        }
+    }
+
+    private void explain(Probe probe) {
+        String collection = this.mongoTemplate.getCollectionName(probe.entity());
+        Document find = new Document("find", collection).append("filter", probe.filter());
+        if (probe.sort() != null) {
+            find.append("sort", probe.sort());
+        }
+        Document result = this.mongoTemplate.getDb()
+                .runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+        Object queryPlanner = result.get("queryPlanner");
+        List<String> stages = new ArrayList<>();
+        collectStages(queryPlanner instanceof Document planner ? planner.get("winningPlan") : null, stages);
+        if (stages.contains("COLLSCAN")) {
+            log.warn("{} on {} is a COLLSCAN (plan {}), check its index", probe.queryName(), collection, stages);
+        } else {
+            log.debug("{} on {} uses plan {}", probe.queryName(), collection, stages);
+        }
+    }
+
+    //plans are trees (inputStage/inputStages, and per shard when sharded): collect every stage name
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    //a repository query shape: the filter/sort it sends, with placeholder values
+    private record Probe(String queryName, Class<?> entity, Document filter, Document sort) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.blogrestapi.Config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+//the non-blocking Mongo client behind the /api/stream read endpoints, only when reactive.read.enabled.
+//Boot's reactive Mongo auto-configuration is excluded in application.yml so that nothing reactive is
+//started otherwise; writes always go through the blocking MongoTemplate/repositories.
+@Configuration
+@ConditionalOnProperty(name = "reactive.read.enabled", havingValue = "true")
+public class ReactiveMongoConfig {
+
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(MongoConnectionDetails connectionDetails) {
+        return MongoClients.create(connectionDetails.getConnectionString());
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoProperties properties) {
+        return new ReactiveMongoTemplate(reactiveMongoClient, properties.getMongoClientDatabase());
+    }
+}
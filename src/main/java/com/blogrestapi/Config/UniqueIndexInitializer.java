@@ -0,0 +1,98 @@
+package com.blogrestapi.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Entity.DisLike;
+import com.blogrestapi.Entity.Like;
+import com.blogrestapi.Entity.User;
+
+import jakarta.annotation.PostConstruct;
+
+//the unique indexes correctness depends on, as opposed to the performance ones in MongoIndexInitializer:
+//one like/dislike per (post, user), which PostReactionToggle upserts against, and one account per
+//username and per email. They are built while the context starts, before the web server takes a request,
+//and one that cannot be built (after removing duplicate reactions) fails startup instead of leaving the
+//app running without it
+@Component
+public class UniqueIndexInitializer {
+    private static final Logger log = LoggerFactory.getLogger(UniqueIndexInitializer.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    void ensureUniqueIndexes() {
+        // (post, user): one reaction per user and post; the post prefix also serves countByPost
+        ensureReactionIndex(Like.class);
+        ensureReactionIndex(DisLike.class);
+        ensure(User.class, new Index().on("username", Sort.Direction.ASC).unique().named("username_unique"));
+        ensure(User.class, new Index().on("email", Sort.Direction.ASC).unique().sparse().named("email_unique"));
+    }
+
+    //reactions stored before the index existed (by the old unlocked toggle) may repeat a (post, user)
+    //pair and block the build: the repeats are removed, keeping the oldest, and the build is retried.
+    //The counters they inflated are recounted by PostCounterService's reconciliation
+    private void ensureReactionIndex(Class<?> entity) {
+        Index index = new Index().on("post", Sort.Direction.ASC).on("user", Sort.Direction.ASC)
+                .unique().named("post_user_unique");
+        try {
+            this.mongoTemplate.indexOps(entity).ensureIndex(index);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not create index post_user_unique on {}, removing duplicate reactions: {}",
+                    this.mongoTemplate.getCollectionName(entity), e.getMessage());
+        }
+        long removed = removeDuplicateReactions(entity);
+        log.info("Removed {} duplicate reactions from {}", removed, this.mongoTemplate.getCollectionName(entity));
+        ensure(entity, index);
+    }
+
+    private long removeDuplicateReactions(Class<?> entity) {
+        String collection = this.mongoTemplate.getCollectionName(entity);
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().include("post").include("user");
+        Set<List<Object>> seen = new HashSet<>();
+        List<Object> duplicates = new ArrayList<>();
+        try (Stream<Document> docs = this.mongoTemplate.stream(query, Document.class, collection)) {
+            docs.forEach(doc -> {
+                if (!seen.add(Arrays.asList(doc.get("post"), doc.get("user")))) {
+                    duplicates.add(doc.get("_id"));
+                }
+            });
+        }
+        long removed = 0;
+        for (int from = 0; from < duplicates.size(); from += BATCH_SIZE) {
+            List<Object> batch = duplicates.subList(from, Math.min(from + BATCH_SIZE, duplicates.size()));
+            removed += this.mongoTemplate.remove(new Query(Criteria.where("_id").in(batch)), collection).getDeletedCount();
+        }
+        return removed;
+    }
+
+    private void ensure(Class<?> entity, Index index) {
+        String collection = this.mongoTemplate.getCollectionName(entity);
+        try {
+            this.mongoTemplate.indexOps(entity).ensureIndex(index);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not create unique index " + index.getIndexKeys()
+                    + " on " + collection + ": " + e.getMessage(), e);
+        }
+        log.debug("Unique index {} on {} is in place", index.getIndexKeys(), collection);
+    }
+}
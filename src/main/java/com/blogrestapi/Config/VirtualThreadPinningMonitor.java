@@ -0,0 +1,70 @@
+package com.blogrestapi.Config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+//only in virtual thread mode: streams the JFR jdk.VirtualThreadPinned event and logs where a virtual
+//thread blocked while pinned to its carrier (inside synchronized, or in native code), with the frames
+//that held it. A pinned thread blocks the carrier, so enough of them starve every other request.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // shorter pins are not worth a log line
+    @Value("${threads.pinning-monitor.threshold:20ms}")
+    private Duration threshold;
+    @Value("${threads.pinning-monitor.stack-depth:8}")
+    private int stackDepth;
+
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            this.stream = new RecordingStream();
+            this.stream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+            this.stream.onEvent(PINNED_EVENT, this::report);
+            this.stream.startAsync();
+            log.info("Watching for virtual threads pinned longer than {}", this.threshold);
+        } catch (RuntimeException e) {
+            log.warn("Virtual thread pinning monitor not started: {}", e.getMessage());
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String stack = frames.stream()
+                .limit(this.stackDepth)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread {} pinned for {} ms{}", event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(), frames.isEmpty() ? "" : stack);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.stream != null) {
+            this.stream.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.blogrestapi.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+//timeout for controller methods returning a CompletableFuture. @EnableWebMvc switches off Boot's
+//MVC auto-configuration, so spring.mvc.async.request-timeout is applied here instead.
+//A request still pending after it fails with AsyncRequestTimeoutException (503 in GlobalExceptionHandler).
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+    @Value("${spring.mvc.async.request-timeout:30s}")
+    private Duration requestTimeout;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(this.requestTimeout.toMillis());
+    }
+}
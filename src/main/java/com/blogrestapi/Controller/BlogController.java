@@ -3,7 +3,6 @@ package com.blogrestapi.Controller;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 
 import java.util.List;
@@ -18,8 +17,8 @@ import com.blogrestapi.ServiceImpl.FileServiceImpl;
 import com.blogrestapi.ValidationGroup.UpdateUserGroup;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -55,14 +54,13 @@ public class BlogController {
         }
         return ResponseEntity.ok(getAllUser);
     }
-    @GetMapping(value = "/users/getImage/{image}",produces = MediaType.IMAGE_JPEG_VALUE)
-    public ResponseEntity<?> getUserImage(@PathVariable("image")String image)throws  IOException{
+    @GetMapping("/users/getImage/{image}")
+    public ResponseEntity<Resource> getUserImage(@PathVariable("image")String image,
+            @RequestParam(value = "size", required = false, defaultValue = "original") String size)throws  IOException{
         try {
-            InputStream is = this.fileService.getFile(imagePath, image);
-            byte[] b = is.readAllBytes();
-            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.IMAGE_JPEG).body(b);
+            return ImageResponses.ok(this.fileService.getFile(imagePath, image, size));
         }catch (FileNotFoundException file){
-            throw new FileNotFoundException("Image not found with the name: "+image);
+            throw new ResourceNotFoundException("Image not found with the name: "+image);
         }
 
     }
@@ -1,15 +1,19 @@
 package com.blogrestapi.Controller;
 
 import com.blogrestapi.Config.AppConstant;
+import com.blogrestapi.DTO.CursorPageResponse;
 import com.blogrestapi.DTO.PageResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.blogrestapi.DTO.CommentDTO;
 import com.blogrestapi.Service.CommentService;
+import com.blogrestapi.Service.PostService;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
@@ -17,6 +21,8 @@ import java.util.List;
 public class CommentController {
     @Autowired
     private CommentService commentService;
+    @Autowired
+    private PostService postService;
 
     @PostMapping("/comments/user/{userId}/post/{postId}")
     public ResponseEntity<CommentDTO> createComment(
@@ -28,6 +34,16 @@ public class CommentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(comment);
     }
 
+    @PostMapping("/comments/{parentId}/replies/user/{userId}")
+    public ResponseEntity<CommentDTO> createReply(
+        @RequestBody CommentDTO commentDTO,
+        @PathVariable int parentId,
+        @PathVariable int userId
+    ) {
+        CommentDTO reply = this.commentService.createReply(commentDTO, userId, parentId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reply);
+    }
+
     @PutMapping("/comments/{commentId}/user/{userId}/post/{postId}")
     public ResponseEntity<CommentDTO> updateComment(
         @PathVariable int commentId,
@@ -46,12 +62,48 @@ public class CommentController {
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body(commentDTO); // 204 No Content
     }
     @GetMapping("/comments/post/{postId}")
-    public ResponseEntity<?> getComments(@PathVariable(value = "postId")int postId,
+    public CompletableFuture<ResponseEntity<?>> getComments(@PathVariable(value = "postId")int postId,
                                          @RequestParam(value = "pageNumber",required = false,defaultValue = AppConstant.PAGE_NUMBER)int pageNumber,
                                          @RequestParam(value = "pageNumber",required = false,defaultValue = AppConstant.PAGE_SIZE)int pageSize,
                                          @RequestParam(value = "sortBy",required = false,defaultValue ="commentId")String sortBy,
-                                         @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir){
-        PageResponse<CommentDTO> getComment =this.commentService.getCommentByPostId(postId,pageNumber,pageSize,sortBy,sortDir);
+                                         @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        // every comment write bumps the post's version, so the (cached) post validates its comment pages
+        return this.postService.getPostById(postId).thenApply(post -> {
+            String etag = ConditionalResponses.versionTag("comments", postId, post.getVersion());
+            if (ConditionalResponses.matches(ifNoneMatch, etag)) {
+                // the comments are never read: Spring answers 304 from the tag
+                return ConditionalResponses.ok(null, etag, post.getLastModified());
+            }
+            PageResponse<CommentDTO> getComment =this.commentService.getCommentByPostId(postId,pageNumber,pageSize,sortBy,sortDir);
+            return ConditionalResponses.ok(getComment, etag, post.getLastModified());
+        });
+    }
+    @GetMapping("/comments/post/{postId}/cursor")
+    public ResponseEntity<?> getCommentsByCursor(@PathVariable(value = "postId")int postId,
+                                                 @RequestParam(value = "cursor",required = false)String cursor,
+                                                 @RequestParam(value = "pageSize",required = false,defaultValue = AppConstant.PAGE_SIZE)int pageSize,
+                                                 @RequestParam(value = "sortBy",required = false,defaultValue ="commentId")String sortBy,
+                                                 @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir){
+        CursorPageResponse<CommentDTO> getComment =this.commentService.getCommentByPostIdByCursor(postId,cursor,pageSize,sortBy,sortDir);
         return ResponseEntity.status(HttpStatus.OK).body(getComment);
     }
+    //top-level comments of a post; each carries its replyCount so the client can expand threads lazily
+    @GetMapping("/comments/post/{postId}/threads")
+    public ResponseEntity<?> getThreads(@PathVariable(value = "postId")int postId,
+                                        @RequestParam(value = "cursor",required = false)String cursor,
+                                        @RequestParam(value = "pageSize",required = false,defaultValue = AppConstant.PAGE_SIZE)int pageSize,
+                                        @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir){
+        CursorPageResponse<CommentDTO> threads =this.commentService.getThreadsByPostId(postId,cursor,pageSize,sortDir);
+        return ResponseEntity.status(HttpStatus.OK).body(threads);
+    }
+    //replies under a comment in thread order, down to maxDepth levels below it
+    @GetMapping("/comments/{commentId}/replies")
+    public ResponseEntity<?> getReplies(@PathVariable(value = "commentId")int commentId,
+                                        @RequestParam(value = "cursor",required = false)String cursor,
+                                        @RequestParam(value = "pageSize",required = false,defaultValue = AppConstant.PAGE_SIZE)int pageSize,
+                                        @RequestParam(value = "maxDepth",required = false,defaultValue = "1")int maxDepth){
+        CursorPageResponse<CommentDTO> replies =this.commentService.getReplies(commentId,cursor,pageSize,maxDepth);
+        return ResponseEntity.status(HttpStatus.OK).body(replies);
+    }
 }
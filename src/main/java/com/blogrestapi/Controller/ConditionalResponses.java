@@ -0,0 +1,68 @@
+package com.blogrestapi.Controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import com.blogrestapi.DTO.PageResponse;
+
+//builds post and comment reads with a weak ETag derived from post versions. Spring answers a matching
+//If-None-Match (or If-Modified-Since) with 304 and never serializes the body, so when the post or page
+//comes from the caches a revalidation costs neither Mongo nor Jackson. no-cache lets clients keep the
+//body but makes them revalidate it before each use.
+final class ConditionalResponses {
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    //lastModified only where it changes with every write of what the body shows, never for pages:
+    //a deleted post would leave their newest lastModified as it was
+    static <T> ResponseEntity<T> ok(T body, String etag, Date lastModified) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL);
+        if (lastModified != null) {
+            response.lastModified(lastModified.getTime());
+        }
+        return response.body(body);
+    }
+
+    //true when If-None-Match lists etag (or *), so the caller can skip building a body Spring will answer
+    //304 for; any other match (e.g. If-Modified-Since) is still found by Spring once the body is built
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //kind tells apart the representations built from one post version (the post, its comment pages)
+    static String versionTag(String kind, int postId, long version) {
+        return "W/\"" + kind + "-" + postId + "-" + version + "\"";
+    }
+
+    //changes when a post on the page is written, or the page lists other posts or totals
+    static <T> String pageTag(String kind, PageResponse<T> page, ToIntFunction<T> idOf, ToLongFunction<T> versionOf) {
+        StringBuilder state = new StringBuilder(kind).append(':')
+                .append(page.getPageNumber()).append(':')
+                .append(page.getPageSize()).append(':')
+                .append(page.getTotalElement()).append(':')
+                .append(page.isLastPage());
+        for (T item : page.getData()) {
+            state.append(';').append(idOf.applyAsInt(item)).append('.').append(versionOf.applyAsLong(item));
+        }
+        return "W/\"" + kind + "-" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,34 @@
+package com.blogrestapi.Controller;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+
+//builds the response for a stored image. Returning the Resource itself (not its bytes) lets Spring
+//stream it in small chunks and serve Range requests as 206 regions; the ETag/Last-Modified headers
+//make it answer If-None-Match/If-Modified-Since with 304 before any of the file is read.
+final class ImageResponses {
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
+
+    private ImageResponses() {
+    }
+
+    static ResponseEntity<Resource> ok(Resource image) throws IOException {
+        long length = image.contentLength();
+        long lastModified = image.lastModified();
+        // stored files are never rewritten in place, so size + mtime identify the bytes
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        MediaType contentType = MediaTypeFactory.getMediaType(image).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CACHE_CONTROL)
+                .contentType(contentType)
+                .body(image);
+    }
+}
@@ -2,25 +2,31 @@ package com.blogrestapi.Controller;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.blogrestapi.Config.AppConstant;
+import com.blogrestapi.DTO.CursorPageResponse;
 import com.blogrestapi.DTO.PageResponse;
 import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.DTO.PostSummaryDTO;
+import com.blogrestapi.DTO.TrendingPostDTO;
+import com.blogrestapi.Exception.BadRequestException;
+import com.blogrestapi.Exception.ResourceNotFoundException;
 import com.blogrestapi.Service.FileService;
 import com.blogrestapi.Service.PostService;
+import com.blogrestapi.Service.TrendingService;
 import jakarta.validation.Valid;
 
 @RestController
@@ -31,25 +37,50 @@ public class PostController {
     @Autowired
     private FileService fileService;
     @Autowired
+    private TrendingService trendingService;
+    @Autowired
     private ObjectMapper objectMapper;
     @Value("${project.image}")
     private String path;
     // getting the all post in the database
+    // the post reads and delete return the service's future: the request thread is released while
+    // the @Async executor works, and Spring MVC writes the response (or the error) when it completes
     @GetMapping("/posts")
-    public ResponseEntity<?> getAllPost(
+    public CompletableFuture<ResponseEntity<?>> getAllPost(
             @RequestParam(value = "pageNumber", required = false, defaultValue = AppConstant.PAGE_NUMBER) int pageNumber,
             @RequestParam(value = "pageSize", required = false, defaultValue = AppConstant.PAGE_SIZE) int pageSize,
             @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir) {
-        PageResponse<PostDTO> getPageResponse = this.postService.getAllPost(pageNumber, pageSize, sortBy, sortDir).join();
-        return ResponseEntity.status(HttpStatus.OK).body(getPageResponse);
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "view", defaultValue = AppConstant.VIEW_FULL, required = false) String view) {
+        if (isSummaryView(view)) {
+            return this.postService.getAllPostSummaries(pageNumber, pageSize, sortBy, sortDir)
+                    .thenApply(getPageResponse -> ConditionalResponses.ok(getPageResponse,
+                            ConditionalResponses.pageTag("summaries", getPageResponse, PostSummaryDTO::getPostId, PostSummaryDTO::getVersion),
+                            null));
+        }
+        return this.postService.getAllPost(pageNumber, pageSize, sortBy, sortDir)
+                .thenApply(getPageResponse -> ConditionalResponses.ok(getPageResponse,
+                        ConditionalResponses.pageTag("posts", getPageResponse, PostDTO::getPostId, PostDTO::getVersion),
+                        null));
     }
 
     // handler for getting single by id of the particular user
     @GetMapping("/posts/{id}")
-    public ResponseEntity<?> getPostById(@PathVariable("id") int id) {
-        PostDTO postDTO = this.postService.getPostById(id).join();
-        return ResponseEntity.ok(postDTO);
+    public CompletableFuture<ResponseEntity<?>> getPostById(@PathVariable("id") int id) {
+        return this.postService.getPostById(id).thenApply(post -> {
+            this.trendingService.record(id, TrendingService.Event.VIEW);
+            return ConditionalResponses.ok(post,
+                    ConditionalResponses.versionTag("post", id, post.getVersion()), post.getLastModified());
+        });
+    }
+
+    // the posts with the most recent engagement (views, likes, comments), overall or in one category
+    @GetMapping("/posts/trending")
+    public ResponseEntity<?> getTrendingPosts(
+            @RequestParam(value = "categoryId", required = false) Integer categoryId,
+            @RequestParam(value = "limit", required = false, defaultValue = AppConstant.TRENDING_LIMIT) int limit) {
+        List<TrendingPostDTO> trending = this.trendingService.getTrending(categoryId, limit);
+        return ResponseEntity.ok(trending);
     }
 
     // handler for the creating or saving the post in the database
@@ -142,19 +173,29 @@ public class PostController {
             image = "";
         }
         postDTO.setImage(image);
-        PostDTO updatePost = this.postService.updatePostField(id, postDTO, userId, categoryId);
+        PostDTO updatePost;
+        try {
+            updatePost = this.postService.updatePostField(id, postDTO, userId, categoryId);
+        } catch (RuntimeException e) {
+            // the post did not take the upload, so its reference is given back
+            if (!image.isEmpty()) {
+                this.fileService.releaseFile(path, image);
+            }
+            throw e;
+        }
         return ResponseEntity.ok(updatePost);
     }
 
     // handler for deleting the posts
     @DeleteMapping("/posts/{id}")
-    public ResponseEntity<?> deletePost(@PathVariable("id") int id) {
-        Map<String, Object> response = new HashMap<>();
-        PostDTO getPost = this.postService.getPostById(id).join();
-        this.postService.deletePostById(id);
-        response.put("status", "Ok(200)");
-        response.put("message", getPost);
-        return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
+    public CompletableFuture<ResponseEntity<?>> deletePost(@PathVariable("id") int id) {
+        return this.postService.getPostById(id)
+                .thenCompose(getPost -> this.postService.deletePostById(id).thenApply(deleted -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", "Ok(200)");
+                    response.put("message", getPost);
+                    return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
+                }));
     }
     // get post of a particular user by using id
     @GetMapping("/posts/user/{userId}")
@@ -162,8 +203,12 @@ public class PostController {
             @RequestParam(value = "pageNumber", required = false, defaultValue = AppConstant.PAGE_NUMBER) int pageNumber,
             @RequestParam(value = "pageSize", required = false, defaultValue = AppConstant.PAGE_SIZE) int pageSize,
             @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir) {
-
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "view", defaultValue = AppConstant.VIEW_FULL, required = false) String view) {
+        if (isSummaryView(view)) {
+            PageResponse<PostSummaryDTO> post = this.postService.getPostSummariesByUserId(userId, pageNumber, pageSize, sortBy, sortDir);
+            return ResponseEntity.status(HttpStatus.OK).body(post);
+        }
         PageResponse<PostDTO> post = this.postService.getPostByUserId(userId, pageNumber, pageSize, sortBy, sortDir);
         return ResponseEntity.status(HttpStatus.OK).body(post);
     }
@@ -174,60 +219,137 @@ public class PostController {
             @RequestParam(value = "pageNumber", required = false, defaultValue = AppConstant.PAGE_NUMBER) int pageNumber,
             @RequestParam(value = "pageSize", required = false, defaultValue = AppConstant.PAGE_SIZE) int pageSize,
             @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir) {
-
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "view", defaultValue = AppConstant.VIEW_FULL, required = false) String view) {
+        if (isSummaryView(view)) {
+            PageResponse<PostSummaryDTO> post = this.postService.getPostSummariesByCategoryId(categoryId, pageNumber, pageSize,
+                    sortBy, sortDir);
+            return ResponseEntity.status(HttpStatus.OK).body(post);
+        }
         PageResponse<PostDTO> post = this.postService.getPostByCategoryId(categoryId, pageNumber, pageSize, sortBy,
                 sortDir);
 
         return ResponseEntity.status(HttpStatus.OK).body(post);
     }
 
-    // handler for searching the data by postTitle
+    // keyset(cursor) paging of all posts: send back nextCursor to get the following page
+    @GetMapping("/posts/cursor")
+    public ResponseEntity<?> getAllPostByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", required = false, defaultValue = AppConstant.PAGE_SIZE) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "view", defaultValue = AppConstant.VIEW_FULL, required = false) String view) {
+        if (isSummaryView(view)) {
+            CursorPageResponse<PostSummaryDTO> post = this.postService.getAllPostSummariesByCursor(cursor, pageSize, sortBy, sortDir);
+            return ResponseEntity.status(HttpStatus.OK).body(post);
+        }
+        CursorPageResponse<PostDTO> post = this.postService.getAllPostByCursor(cursor, pageSize, sortBy, sortDir);
+        return ResponseEntity.status(HttpStatus.OK).body(post);
+    }
+
+    @GetMapping("/posts/user/{userId}/cursor")
+    public ResponseEntity<?> getPostByUserByCursor(@PathVariable("userId") int userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", required = false, defaultValue = AppConstant.PAGE_SIZE) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "view", defaultValue = AppConstant.VIEW_FULL, required = false) String view) {
+        if (isSummaryView(view)) {
+            CursorPageResponse<PostSummaryDTO> post = this.postService.getPostSummariesByUserIdByCursor(userId, cursor, pageSize,
+                    sortBy, sortDir);
+            return ResponseEntity.status(HttpStatus.OK).body(post);
+        }
+        CursorPageResponse<PostDTO> post = this.postService.getPostByUserIdByCursor(userId, cursor, pageSize, sortBy, sortDir);
+        return ResponseEntity.status(HttpStatus.OK).body(post);
+    }
+
+    @GetMapping("/posts/category/{categoryId}/cursor")
+    public ResponseEntity<?> getPostByCategoryByCursor(@PathVariable("categoryId") int categoryId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", required = false, defaultValue = AppConstant.PAGE_SIZE) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "view", defaultValue = AppConstant.VIEW_FULL, required = false) String view) {
+        if (isSummaryView(view)) {
+            CursorPageResponse<PostSummaryDTO> post = this.postService.getPostSummariesByCategoryIdByCursor(categoryId, cursor,
+                    pageSize, sortBy, sortDir);
+            return ResponseEntity.status(HttpStatus.OK).body(post);
+        }
+        CursorPageResponse<PostDTO> post = this.postService.getPostByCategoryIdByCursor(categoryId, cursor, pageSize, sortBy, sortDir);
+        return ResponseEntity.status(HttpStatus.OK).body(post);
+    }
+
+    // handler for searching posts by title and content, ranked by relevance
     @GetMapping("/posts/search/{search}")
-    public ResponseEntity<?> searchPostByTitle(@PathVariable("search") String search) {
-        List<PostDTO> searchedPost = this.postService.searchPost(search);
+    public ResponseEntity<?> searchPostByTitle(@PathVariable("search") String search,
+            @RequestParam(value = "pageNumber", required = false, defaultValue = AppConstant.PAGE_NUMBER) int pageNumber,
+            @RequestParam(value = "pageSize", required = false, defaultValue = AppConstant.PAGE_SIZE) int pageSize,
+            @RequestParam(value = "view", defaultValue = AppConstant.VIEW_FULL, required = false) String view) {
+        if (isSummaryView(view)) {
+            PageResponse<PostSummaryDTO> searchedPost = this.postService.searchPostSummaries(search, pageNumber, pageSize);
+            return ResponseEntity.ok(searchedPost);
+        }
+        PageResponse<PostDTO> searchedPost = this.postService.searchPost(search, pageNumber, pageSize);
         return ResponseEntity.ok(searchedPost);
     }
     //handler to save image of post
     @PostMapping("/posts/{postId}/uploadImage")
-    public ResponseEntity<?> uploadPostImage(
+    public CompletableFuture<ResponseEntity<?>> uploadPostImage(
             @RequestParam("image") MultipartFile imageFile,
             @PathVariable int postId
     ) {
-        try {
-            // Get the post by ID
-            PostDTO postDTO = this.postService.getPostById(postId).join();
-            // Upload the image file to the specified directory
-            String fileName = this.fileService.uploadFile(path, imageFile);    
-            // Set the image file name in the postDTO
-            postDTO.setImage(fileName);
-            
-            // Update the post with the image
-            PostDTO updatedPost = this.postService.updatePostField(postId, postDTO, postDTO.getUserId(), postDTO.getCategoryId());
-            
+        // Get the post by ID
+        return this.postService.getPostById(postId).thenApply(postDTO -> {
+            String fileName;
+            try {
+                // Upload the image file to the specified directory
+                fileName = this.fileService.uploadFile(path, imageFile);
+            } catch (IOException e) {
+                // If an IOException occurs, it will be caught here
+                throw new RuntimeException("File upload failed. Please try again.", e);
+            }
+            // the cached post is shared, so the edit is a copy carrying only what updatePostField reads
+            PostDTO edit = new PostDTO();
+            edit.setPostTitle(postDTO.getPostTitle());
+            edit.setContent(postDTO.getContent());
+            edit.setCategoryId(postDTO.getCategoryId());
+            edit.setImage(fileName);
+            PostDTO updatedPost;
+            try {
+                // Update the post with the image
+                updatedPost = this.postService.updatePostField(postId, edit, postDTO.getUserId(), postDTO.getCategoryId());
+            } catch (RuntimeException e) {
+                // the post did not take the upload, so its reference is given back
+                this.fileService.releaseFile(path, fileName);
+                throw e;
+            }
             // Return the updated post with the image
             return ResponseEntity.status(HttpStatus.OK).body(updatedPost);
-    
-        } catch (IOException e) {
-            // If an IOException occurs, it will be caught here
-            throw new RuntimeException("File upload failed. Please try again.", e);
-        }
+        });
     }
     //handler to get the image form the database
-    @GetMapping(value = "/posts/image/{imageName}",produces = MediaType.IMAGE_JPEG_VALUE)
-    public ResponseEntity<byte[]> getImages(@PathVariable("imageName")String imageName)
+    @GetMapping("/posts/image/{imageName}")
+    public ResponseEntity<Resource> getImages(@PathVariable("imageName")String imageName,
+            @RequestParam(value = "size", required = false, defaultValue = "original") String size)
     {
        try {
-         InputStream is= this.fileService.getFile(path, imageName);
-         byte[] b=is.readAllBytes();
-        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.IMAGE_JPEG).body(b);
+        return ImageResponses.ok(this.fileService.getFile(path, imageName, size));
        } catch (FileNotFoundException e) {
-        throw new RuntimeException("You have inserted wrong imageName.We could not found image with this name: "+imageName);
+        throw new ResourceNotFoundException("You have inserted wrong imageName.We could not found image with this name: "+imageName);
        }catch (IOException e) {
             throw new RuntimeException("File download  failed. Please try again.", e);
         }
     }
 
-    
-
+    // view=summary lists PostSummaryDTOs (excerpt instead of content, read through a field projection)
+    private static boolean isSummaryView(String view) {
+        if (AppConstant.VIEW_SUMMARY.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (AppConstant.VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new BadRequestException("view must be " + AppConstant.VIEW_FULL + " or " + AppConstant.VIEW_SUMMARY);
+    }
 }
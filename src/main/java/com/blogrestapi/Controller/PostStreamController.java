@@ -0,0 +1,57 @@
+package com.blogrestapi.Controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.blogrestapi.Config.AppConstant;
+import com.blogrestapi.DTO.CommentDTO;
+import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.ServiceImpl.ReactivePostReader;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//streaming variants of the read-heavy endpoints, enabled with reactive.read.enabled=true.
+//Lists are written one element at a time as SSE (the default for Accept: */*) or NDJSON
+//(Accept: application/x-ndjson); no request thread waits on Mongo, the driver pushes each
+//document as the client reads.
+@RestController
+@RequestMapping("/api/stream")
+@ConditionalOnProperty(name = "reactive.read.enabled", havingValue = "true")
+public class PostStreamController {
+    @Autowired
+    private ReactivePostReader reactivePostReader;
+
+    @GetMapping(path = "/posts", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PostDTO> streamPosts(
+            @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "limit", defaultValue = "0", required = false) int limit) {
+        return this.reactivePostReader.findPosts(sortBy, sortDir, limit);
+    }
+
+    @GetMapping(path = "/posts/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PostDTO> getPost(@PathVariable("id") int id) {
+        return this.reactivePostReader.findPost(id);
+    }
+
+    @GetMapping(path = "/posts/category/{categoryId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PostDTO> streamPostsByCategory(@PathVariable("categoryId") int categoryId,
+            @RequestParam(value = "sortBy", defaultValue = AppConstant.SORT_BY, required = false) String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = AppConstant.SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "limit", defaultValue = "0", required = false) int limit) {
+        return this.reactivePostReader.findPostsByCategory(categoryId, sortBy, sortDir, limit);
+    }
+
+    @GetMapping(path = "/comments/post/{postId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CommentDTO> streamComments(@PathVariable("postId") int postId,
+            @RequestParam(value = "limit", defaultValue = "0", required = false) int limit) {
+        return this.reactivePostReader.findComments(postId, limit);
+    }
+}
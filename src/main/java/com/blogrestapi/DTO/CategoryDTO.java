@@ -14,4 +14,5 @@ public class CategoryDTO {
     @NotEmpty(message = "title should not be empty")
     @Size(min = 2,message = "title should have more than 2 letters")
     private String categoryTitle;
+    private long postCount;
 }
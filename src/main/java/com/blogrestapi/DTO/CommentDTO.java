@@ -7,4 +7,7 @@ public class CommentDTO {
     private String comments;
     private int postId;
     private  int  userId;
+    private int parentId;//0 for a top-level comment
+    private int depth;
+    private long replyCount;
 }
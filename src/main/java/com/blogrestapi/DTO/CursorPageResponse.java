@@ -0,0 +1,18 @@
+package com.blogrestapi.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private String status;
+    private List<T> data;
+    private int pageSize;
+    private String nextCursor;//pass back as ?cursor= to get the next page, null on the last page
+    private boolean lastPage;
+}
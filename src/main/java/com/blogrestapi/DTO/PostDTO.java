@@ -2,6 +2,8 @@ package com.blogrestapi.DTO;
 
 
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
@@ -25,10 +27,17 @@ public class PostDTO {
     @Size(min = 10, message = "Content must be at least 10 characters long")
     private String content;
     private String image;
+    // size (thumb, medium) -> file name of the downscaled copy of image
+    private Map<String, String> imageVariants = new LinkedHashMap<>();
 
     // @NotNull(message = "Post date cannot be null")
     // @PastOrPresent(message = "Post date must be in the past or present")
     private Date postDate;
     private int userId;
     private int categoryId;
+    private long likeCount;
+    private long dislikeCount;
+    private long commentCount;
+    private long version;
+    private Date lastModified;
 }
@@ -0,0 +1,30 @@
+package com.blogrestapi.DTO;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//a feed entry: what a post list shows, without the post body (view=summary on the list endpoints)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryDTO {
+    private int postId;
+    private String postTitle;
+    private String excerpt;
+    private String image;
+    // size (thumb, medium) -> file name of the downscaled copy of image
+    private Map<String, String> imageVariants = new LinkedHashMap<>();
+    private Date postDate;
+    private int userId;
+    private int categoryId;
+    private long likeCount;
+    private long dislikeCount;
+    private long commentCount;
+    private long version;
+    private Date lastModified;
+}
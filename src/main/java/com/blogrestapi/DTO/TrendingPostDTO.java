@@ -0,0 +1,15 @@
+package com.blogrestapi.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//an entry of /api/posts/trending: the post's feed summary and its decayed engagement score
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingPostDTO {
+    private int rank;
+    private double score;
+    private PostSummaryDTO post;
+}
@@ -3,6 +3,8 @@ package com.blogrestapi.DTO;
 
 
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import com.blogrestapi.Entity.Role;
 
 import com.blogrestapi.ValidationGroup.CreateUserGroup;
@@ -32,12 +34,15 @@ public class UserDTO {
     @Size(groups = CreateUserGroup.class , min=3,max=16,message = "Password should have less than 3 and greater than 16 characters")
     private String password;
     private String image;
+    // size (thumb, medium) -> file name of the downscaled copy of image
+    private Map<String, String> imageVariants = new LinkedHashMap<>();
     @NotEmpty(groups = CreateUserGroup.class,message = "Required!")
     @Pattern(groups = CreateUserGroup.class,regexp = "^\\d{10}$",message = "Phone number must  have 10 digits")
     private String phoneNumber;
     @Size(groups = CreateUserGroup.class,min=10,max=600,message = "Description must be between 10 and 500 characters ")
     private String description;
     private boolean isEnable;
+    private long postCount;
 
     private Role role;
 
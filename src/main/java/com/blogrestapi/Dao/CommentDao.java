@@ -11,4 +11,8 @@ import java.util.List;
 
 public interface CommentDao extends MongoRepository<Comment,Integer> {
     Page<Comment> findCommentByPost(Post post, Pageable pageable);
+    //a whole subtree is one path range (see CommentPath); Between excludes both bounds
+    long deleteByPostIdAndPathBetween(int postId, String pathFrom, String pathTo);
+    //1 when this call removed the comment, 0 when it was already gone
+    long deleteByCommentId(int commentId);
 }
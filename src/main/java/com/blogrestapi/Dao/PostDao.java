@@ -1,21 +1,40 @@
 package com.blogrestapi.Dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
-import com.blogrestapi.Entity.Category;
 import com.blogrestapi.Entity.Post;
-import com.blogrestapi.Entity.User;
 
 @Repository
 public interface PostDao extends MongoRepository<Post,Integer> {
-    Page<Post> findPostByUser(User user,Pageable pageable);
-    List<Post> findPostByUser(User user);
-    Page<Post> findPostByCategory(Category category,Pageable pageable);
-    List<Post> findByPostTitleContainingIgnoreCase(String postTitle);
+    Page<Post> findPostByUserId(int userId,Pageable pageable);
+    Page<Post> findPostByCategoryId(int categoryId,Pageable pageable);
+    Page<Post> findByPostTitleContainingIgnoreCase(String postTitle,Pageable pageable);
+
+    //summary feeds: only the fields a PostSummaryDTO needs are read, never content or the DBRefs
+    String SUMMARY_FIELDS = "{ 'postTitle': 1, 'excerpt': 1, 'image': 1, 'imageVariants': 1, 'postDate': 1,"
+            + " 'userId': 1, 'categoryId': 1, 'likeCount': 1, 'dislikeCount': 1, 'commentCount': 1,"
+            + " 'version': 1, 'lastModified': 1 }";
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    Page<Post> findAllSummaries(Pageable pageable);
+    @Query(fields = SUMMARY_FIELDS)
+    Page<Post> findSummaryByUserId(int userId,Pageable pageable);
+    @Query(fields = SUMMARY_FIELDS)
+    Page<Post> findSummaryByCategoryId(int categoryId,Pageable pageable);
+    @Query(fields = SUMMARY_FIELDS)
+    Page<Post> findSummaryByPostTitleContainingIgnoreCase(String postTitle,Pageable pageable);
+    @Query(fields = SUMMARY_FIELDS)
+    List<Post> findSummaryByPostIdIn(Collection<Integer> postIds);
+    //like/dislike counts: only the two denormalized counters are read
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'likeCount': 1, 'dislikeCount': 1 }")
+    Optional<Post> findReactionCountsByPostId(int postId);
 
 //    @Aggregation(pipeline = {"${sample:{size:?0} }"})
 //    List<Post> findRandomPosts(int pageSize);
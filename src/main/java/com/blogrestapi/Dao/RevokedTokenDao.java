@@ -0,0 +1,15 @@
+package com.blogrestapi.Dao;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.blogrestapi.Entity.RevokedToken;
+
+@Repository
+public interface RevokedTokenDao extends MongoRepository<RevokedToken,String> {
+    List<RevokedToken> findByExpiresAtAfter(Date now);
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Date since, Date now);
+}
@@ -5,6 +5,7 @@ package com.blogrestapi.Dao;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.blogrestapi.Entity.User;
@@ -13,4 +14,11 @@ public interface UserDao extends MongoRepository<User,Integer> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    //projections that leave out the post references, so their cost does not grow with the user's posts
+    @Query(value = "{'username': ?0}", fields = "{'username': 1, 'role': 1, 'isEnable': 1}")
+    Optional<User> findPrincipalByUsername(String username);
+    @Query(value = "{'username': ?0}", fields = "{'username': 1, 'password': 1, 'role': 1, 'isEnable': 1}")
+    Optional<User> findCredentialsByUsername(String username);
+    @Query(value = "{'_id': ?0}", fields = "{'username': 1, 'image': 1}")
+    Optional<User> findUsernameById(int id);
 }
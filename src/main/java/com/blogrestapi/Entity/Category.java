@@ -1,9 +1,5 @@
 package com.blogrestapi.Entity;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
@@ -20,7 +16,6 @@ public class Category {
     @MongoId
     private int categoryId;
     private String categoryTitle;
-    @DBRef
-    private List<Post> post=new ArrayList<>();
-    
-}
\ No newline at end of file
+    // posts are found by their categoryId (PostDao); only their number is kept here, by PostCounterService
+    private long postCount;
+}
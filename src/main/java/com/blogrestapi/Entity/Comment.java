@@ -16,8 +16,17 @@ public class Comment {
     @MongoId
     private int commentId;
     private String comments;
-    @DBRef
+    @DBRef(lazy = true)
     private Post post;
-    @DBRef
+    @DBRef(lazy = true)
     private User user;
+    // plain copies of the referenced ids so comments can be listed and mapped without dereferencing
+    private int postId;
+    private int userId;
+    // threading: the comment this one replies to (0 at top level), its CommentPath and nesting level
+    private int parentId;
+    private String path;
+    private int depth;
+    // direct replies, maintained with $inc by PostCounterService
+    private long replyCount;
 }
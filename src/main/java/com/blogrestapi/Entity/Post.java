@@ -1,8 +1,8 @@
 package com.blogrestapi.Entity;
 
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -23,14 +23,29 @@ public class Post {
     
     private String postTitle;
     private String content;
+    // start of content, set on every write by PostServiceImpl; what summary feeds show instead of content
+    private String excerpt;
     private String image;
+    // size (thumb, medium) -> file name of the downscaled copy of image
+    private Map<String, String> imageVariants = new LinkedHashMap<>();
     private Date postDate;
     @DBRef(lazy =true)
     private User user;
     @DBRef(lazy = true)
     private Category category;
-    @DBRef(lazy = true)
-    private Set<Comment> comments=new HashSet<>();
+    // plain copies of the referenced ids so feeds can be mapped and filtered without dereferencing
+    private int userId;
+    private int categoryId;
+    // maintained with $inc by PostCounterService, never recounted on read; the comments themselves
+    // are found by their post reference (CommentDao), not kept in an array here
+    private long likeCount;
+    private long dislikeCount;
+    private long commentCount;
+    // bumped by every write that changes what a read of the post returns (updatePostField, the
+    // counters, comment writes); the ETag of the post and of its comments is built from it.
+    // All of them are targeted updates through PostCounterService, so none overwrites another
+    private long version;
+    private Date lastModified;
 
    
 }
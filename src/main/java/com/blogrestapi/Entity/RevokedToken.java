@@ -0,0 +1,22 @@
+package com.blogrestapi.Entity;
+
+import java.util.Date;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//a logged-out JWT, stored by hash; the TTL index on expiresAt deletes it once the token could no longer be used anyway
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @MongoId
+    private String tokenHash;
+    private Date expiresAt;
+    private Date revokedAt;
+}
@@ -0,0 +1,29 @@
+package com.blogrestapi.Entity;
+
+import java.util.Date;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//one content-addressed image file and how many posts/users point at it; the file is
+//collected once refCount has stayed at zero for the grace period
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "stored_files")
+public class StoredFile {
+    // image directory + file name, e.g. "images/users/<sha-256>.png"
+    @MongoId
+    private String id;
+    private String directory;
+    private String fileName;
+    private long refCount;
+    private long size;
+    private Date updatedAt;
+    // set by collect() while it deletes the file; no reference is taken to a document in this state
+    private boolean collecting;
+}
@@ -0,0 +1,23 @@
+package com.blogrestapi.Entity;
+
+import java.util.Date;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//checkpoint of a post's trending score, as it was at checkpointAt; decayed further when loaded at startup
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trending_scores")
+public class TrendingScore {
+    @MongoId
+    private int postId;
+    private int categoryId;
+    private double score;
+    private Date checkpointAt;
+}
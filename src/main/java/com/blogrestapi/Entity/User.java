@@ -2,7 +2,9 @@ package com.blogrestapi.Entity;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.MongoId;
@@ -24,11 +26,13 @@ public class User implements UserDetails {
     private String email;
     private String password;
     private String image;
+    // size (thumb, medium) -> file name of the downscaled copy of image
+    private Map<String, String> imageVariants = new LinkedHashMap<>();
     private String phoneNumber;
     private String description;
     private boolean isEnable;
-    @DBRef
-    private List<Post> post = new ArrayList<>();
+    // posts are found by their userId (PostDao); only their number is kept here, by PostCounterService
+    private long postCount;
     
     @DBRef
     private Role role; // Keep as single Role
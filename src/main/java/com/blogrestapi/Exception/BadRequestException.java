@@ -0,0 +1,8 @@
+package com.blogrestapi.Exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message)
+    {
+        super(message);
+    }
+}
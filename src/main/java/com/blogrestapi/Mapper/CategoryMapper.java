@@ -0,0 +1,22 @@
+package com.blogrestapi.Mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.DTO.CategoryDTO;
+import com.blogrestapi.Entity.Category;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toDTO(Category category) {
+        return new CategoryDTO(category.getCategoryId(), category.getCategoryTitle(), category.getPostCount());
+    }
+
+    public Category toEntity(CategoryDTO dto) {
+        Category category = new Category();
+        category.setCategoryId(dto.getCategoryId());
+        category.setCategoryTitle(dto.getCategoryTitle());
+        category.setPostCount(dto.getPostCount());
+        return category;
+    }
+}
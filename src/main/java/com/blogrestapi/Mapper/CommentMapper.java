@@ -0,0 +1,48 @@
+package com.blogrestapi.Mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.DTO.CommentDTO;
+import com.blogrestapi.Entity.Comment;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.User;
+
+@Component
+public class CommentMapper {
+
+    public CommentDTO toDTO(Comment comment) {
+        CommentDTO dto = new CommentDTO();
+        dto.setId(comment.getCommentId());
+        dto.setComments(comment.getComments());
+        dto.setPostId(comment.getPostId());
+        dto.setUserId(comment.getUserId());
+        dto.setParentId(comment.getParentId());
+        dto.setDepth(comment.getDepth());
+        dto.setReplyCount(comment.getReplyCount());
+        return dto;
+    }
+
+    //post and user are id-only references, stored as DBRefs. The threading fields are never
+    //taken from a dto: CommentServiceImpl sets them when the comment is created
+    public Comment toEntity(CommentDTO dto) {
+        Comment comment = new Comment();
+        update(dto, comment);
+        return comment;
+    }
+
+    //copies the dto onto an existing comment, keeping its loaded post/user when the ids match
+    public void update(CommentDTO dto, Comment comment) {
+        comment.setCommentId(dto.getId());
+        comment.setComments(dto.getComments());
+        if (comment.getPost() == null) {
+            comment.setPost(new Post());
+        }
+        comment.getPost().setPostId(dto.getPostId());
+        if (comment.getUser() == null) {
+            comment.setUser(new User());
+        }
+        comment.getUser().setId(dto.getUserId());
+        comment.setPostId(dto.getPostId());
+        comment.setUserId(dto.getUserId());
+    }
+}
@@ -0,0 +1,83 @@
+package com.blogrestapi.Mapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.DTO.PostSummaryDTO;
+import com.blogrestapi.Entity.Category;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.User;
+
+//plain getter/setter mapping, no reflection. Reads only the post's own fields and the copied
+//userId/categoryId, so mapping never resolves the lazy user/category references.
+@Component
+public class PostMapper {
+
+    public PostDTO toDTO(Post post) {
+        PostDTO dto = new PostDTO();
+        dto.setPostId(post.getPostId());
+        dto.setPostTitle(post.getPostTitle());
+        dto.setContent(post.getContent());
+        dto.setImage(post.getImage());
+        dto.setImageVariants(copy(post.getImageVariants()));
+        dto.setPostDate(post.getPostDate());
+        dto.setUserId(post.getUserId());
+        dto.setCategoryId(post.getCategoryId());
+        dto.setLikeCount(post.getLikeCount());
+        dto.setDislikeCount(post.getDislikeCount());
+        dto.setCommentCount(post.getCommentCount());
+        dto.setVersion(post.getVersion());
+        dto.setLastModified(post.getLastModified());
+        return dto;
+    }
+
+    //reads only the fields PostDao.SUMMARY_FIELDS projects
+    public PostSummaryDTO toSummary(Post post) {
+        PostSummaryDTO dto = new PostSummaryDTO();
+        dto.setPostId(post.getPostId());
+        dto.setPostTitle(post.getPostTitle());
+        dto.setExcerpt(post.getExcerpt());
+        dto.setImage(post.getImage());
+        dto.setImageVariants(copy(post.getImageVariants()));
+        dto.setPostDate(post.getPostDate());
+        dto.setUserId(post.getUserId());
+        dto.setCategoryId(post.getCategoryId());
+        dto.setLikeCount(post.getLikeCount());
+        dto.setDislikeCount(post.getDislikeCount());
+        dto.setCommentCount(post.getCommentCount());
+        dto.setVersion(post.getVersion());
+        dto.setLastModified(post.getLastModified());
+        return dto;
+    }
+
+    //user and category are id-only references; the services replace them with the loaded documents.
+    //version and lastModified are never taken from a dto, only the writes in PostServiceImpl set them
+    public Post toEntity(PostDTO dto) {
+        Post post = new Post();
+        post.setPostId(dto.getPostId());
+        post.setPostTitle(dto.getPostTitle());
+        post.setContent(dto.getContent());
+        post.setImage(dto.getImage());
+        post.setImageVariants(copy(dto.getImageVariants()));
+        post.setPostDate(dto.getPostDate());
+        post.setUserId(dto.getUserId());
+        post.setCategoryId(dto.getCategoryId());
+        User user = new User();
+        user.setId(dto.getUserId());
+        post.setUser(user);
+        Category category = new Category();
+        category.setCategoryId(dto.getCategoryId());
+        post.setCategory(category);
+        post.setLikeCount(dto.getLikeCount());
+        post.setDislikeCount(dto.getDislikeCount());
+        post.setCommentCount(dto.getCommentCount());
+        return post;
+    }
+
+    static Map<String, String> copy(Map<String, String> map) {
+        return map != null ? new LinkedHashMap<>(map) : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.blogrestapi.Mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.DTO.DisLikeDTO;
+import com.blogrestapi.DTO.LikeDTO;
+import com.blogrestapi.Entity.DisLike;
+import com.blogrestapi.Entity.Like;
+
+//likes and dislikes: the ids of the referenced user and post, nothing else of them
+@Component
+public class ReactionMapper {
+
+    public LikeDTO toDTO(Like like) {
+        return new LikeDTO(like.getId(),
+                like.getUser() != null ? like.getUser().getId() : 0,
+                like.getPost() != null ? like.getPost().getPostId() : 0);
+    }
+
+    public DisLikeDTO toDTO(DisLike disLike) {
+        return new DisLikeDTO(disLike.getId(),
+                disLike.getUser() != null ? disLike.getUser().getId() : 0,
+                disLike.getPost() != null ? disLike.getPost().getPostId() : 0);
+    }
+}
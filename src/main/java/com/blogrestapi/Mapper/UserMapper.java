@@ -0,0 +1,42 @@
+package com.blogrestapi.Mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.DTO.UserDTO;
+import com.blogrestapi.Entity.User;
+
+@Component
+public class UserMapper {
+
+    public UserDTO toDTO(User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setPassword(user.getPassword());
+        dto.setImage(user.getImage());
+        dto.setImageVariants(PostMapper.copy(user.getImageVariants()));
+        dto.setPhoneNumber(user.getPhoneNumber());
+        dto.setDescription(user.getDescription());
+        dto.setEnable(user.isEnable());
+        dto.setPostCount(user.getPostCount());
+        dto.setRole(user.getRole());
+        return dto;
+    }
+
+    public User toEntity(UserDTO dto) {
+        User user = new User();
+        user.setId(dto.getId() != null ? dto.getId() : 0);
+        user.setUsername(dto.getUsername());
+        user.setEmail(dto.getEmail());
+        user.setPassword(dto.getPassword());
+        user.setImage(dto.getImage());
+        user.setImageVariants(PostMapper.copy(dto.getImageVariants()));
+        user.setPhoneNumber(dto.getPhoneNumber());
+        user.setDescription(dto.getDescription());
+        user.setEnable(dto.isEnable());
+        user.setPostCount(dto.getPostCount());
+        user.setRole(dto.getRole());
+        return user;
+    }
+}
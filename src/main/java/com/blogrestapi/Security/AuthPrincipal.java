@@ -0,0 +1,59 @@
+package com.blogrestapi.Security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.blogrestapi.Entity.User;
+
+import lombok.Getter;
+
+//what a request needs to know about the authenticated user, and nothing else: no password,
+//no posts. Small and immutable so it can be cached between requests.
+@Getter
+public class AuthPrincipal implements UserDetails {
+    private final int id;
+    private final String username;
+    private final String role;
+    private final boolean enabled;
+
+    public AuthPrincipal(int id, String username, String role, boolean enabled) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.enabled = enabled;
+    }
+
+    public static AuthPrincipal of(User user) {
+        return new AuthPrincipal(user.getId(), user.getUsername(),
+                user.getRole() != null ? user.getRole().getName() : null, user.isEnable());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return this.role != null ? List.of(new SimpleGrantedAuthority(this.role)) : List.of();
+    }
+
+    @Override
+    public String getPassword() {
+        return null; // requests authenticate with the JWT, never with the password
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
@@ -1,14 +1,24 @@
 package com.blogrestapi.Security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -20,10 +30,78 @@ public class JWTTokenHelper {
     public  long JWT_TOKEN_VALIDITY; // 5 hours in milliseconds
     @Value("${jwt.token.secret}")
     public String secret;
+    @Value("${jwt.verified-cache.size:10000}")
+    private long verifiedCacheSize;
+    // built once from the secret: the key and the parser are immutable and thread-safe
+    private Key key;
+    private JwtParser parser;
+    // sha-256 of a token -> its claims, for tokens whose signature was already checked; each entry expires with the token
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    // an immutable copy of a verified token's claims: every caller gets its own Claims built from it,
+    // so none can change what another request sees
+    private record VerifiedToken(Map<String, Object> claims, long expiresAt) {
+        Claims toClaims() {
+            return Jwts.claims(this.claims);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(this.key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(this.verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, VerifiedToken verified, long currentTime) {
+                        long millisLeft = verified.expiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     private Key getKey()
     {
-        byte[] byteKey=Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(byteKey);
+        return this.key;
+    }
+
+    // Verify the signature and expiry once and return the claims; a token seen before is served from the cache.
+    // The claims returned are the caller's own copy. Throws ExpiredJwtException or another JwtException
+    // when the token is not valid.
+    public Claims verifyToken(String token) {
+        String tokenHash = tokenHash(token);
+        VerifiedToken cached = this.verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.toClaims();
+        }
+        Claims claims = this.parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            // the registered claims are stored as strings and numbers, so a shallow copy is immutable
+            this.verifiedTokens.put(tokenHash, new VerifiedToken(Map.copyOf(claims), claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    // sha-256 of the token, base64: how verified and revoked tokens are keyed without keeping the token itself
+    public static String tokenHash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     // Retrieve username from JWT token
@@ -44,11 +122,7 @@ public class JWTTokenHelper {
 
     // For retrieving any information from the token, we need the secret key
     private Claims getAllClaimsFromToken(String token) {
-        // Use the generated secret key to parse the token
-        return Jwts.parser()
-                .setSigningKey(getKey()) // Use the SecretKey instance directly
-                .parseClaimsJws(token)
-                .getBody();
+        return verifyToken(token);
     }
 
     // Check if the token has expired
@@ -79,7 +153,13 @@ public class JWTTokenHelper {
 
     // Validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verifyToken(token), userDetails);
+    }
+
+    // Validate claims that verifyToken already checked for signature and expiry
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration().after(new Date());
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
@@ -38,6 +39,7 @@ public class JwtAuthencticationFilter extends OncePerRequestFilter {
        // the token we get from the request.getHeader() is in this format->Bearer ASJDLAJDK
        String username=null;
        String token=null;
+       Claims claims=null;
        if (authorizationHeader !=null && authorizationHeader.startsWith("Bearer ")) {
            token= authorizationHeader.substring(7);
            if (tokenBlackListService.isTokenBlackListed(token)) {
@@ -45,18 +47,17 @@ public class JwtAuthencticationFilter extends OncePerRequestFilter {
                response.getWriter().write("Token has been invalidated");
                return; // Exit if the token is blacklisted
            }
-           if(jwtTokenHelper.isTokenExpired(token)){
+           // the only signature check of the request; the claims are reused below
+           try {
+            claims=this.jwtTokenHelper.verifyToken(token);
+            username=claims.getSubject();
+           }catch(ExpiredJwtException e){
                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                response.getWriter().write("Token has expired");
                return; //exit if the token has expired
-           }
-           try {
-            username=this.jwtTokenHelper.getUsernameFromToken(token);
            }catch(IllegalArgumentException i)
            {
             System.out.println("unable to get the jwt token");
-           }catch(ExpiredJwtException e){
-            System.out.println("Jwt token has expired");
            }catch(MalformedJwtException mal){
             System.out.println("invalid jwt");
            } catch (Exception e) {
@@ -74,10 +75,10 @@ public class JwtAuthencticationFilter extends OncePerRequestFilter {
        //when securityContect is equals to null then the user is not logged in 
        if (username != null && SecurityContextHolder.getContext().getAuthentication()==null) {
         //this loades the userdetails form the database by using the username
-        UserDetails userDetails=this.userDetailService.loadUserByUsername(username);
+        UserDetails userDetails=this.userDetailService.loadPrincipalByUsername(username);
         //here the validate token validates the user by comparing with the username in userDetails and username in token 
-        // and validate token also check whether the token is exppired or not
-        if (this.jwtTokenHelper.validateToken(token, userDetails)) {
+        // and validate token also check whether the token is exppired or not (the signature was verified above)
+        if (this.jwtTokenHelper.validateToken(claims, userDetails)) {
             //here authentication represents the authenticated(verified) user and this 
             //  SecurityContextHolder.getContext().setAuthentication(authentication); set the authenticated user in
             // the securityContext.This effectively tells Spring Security that the user is now authenticated for this request.
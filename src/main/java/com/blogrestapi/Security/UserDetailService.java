@@ -2,11 +2,13 @@ package com.blogrestapi.Security;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.blogrestapi.Config.AppConstant;
 import com.blogrestapi.Dao.UserDao;
 import com.blogrestapi.Entity.User;
 import com.blogrestapi.Exception.ResourceNotFoundException;
@@ -16,11 +18,20 @@ public class UserDetailService implements UserDetailsService {
     private UserDao userDao;
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        //loading user form database 
-        User user= this.userDao.findByUsername(username)
+        //loading user form database, only the fields login checks (never the user's post references)
+        User user= this.userDao.findCredentialsByUsername(username)
         .orElseThrow(()->new ResourceNotFoundException("User("+username+") not found"));
 
         return user;
     }
+
+    //principal for JWT-authenticated requests: projected, password-less and cached for a short time.
+    //UserServiceImpl evicts it when the user is updated or deleted.
+    @Cacheable(value = AppConstant.CACHE_AUTH_PRINCIPAL, key = "#username")
+    public AuthPrincipal loadPrincipalByUsername(String username) {
+        User user= this.userDao.findPrincipalByUsername(username)
+        .orElseThrow(()->new ResourceNotFoundException("User("+username+") not found"));
+        return AuthPrincipal.of(user);
+    }
     
 }
@@ -3,6 +3,7 @@ package com.blogrestapi.Service;
 
 import java.util.List;
 
+import com.blogrestapi.DTO.CursorPageResponse;
 import com.blogrestapi.DTO.PageResponse;
 import com.blogrestapi.Entity.Comment;
 import org.springframework.stereotype.Service;
@@ -13,7 +14,15 @@ public interface CommentService {
     List<CommentDTO> getAllComments();
     CommentDTO findCommentById(int commentId);
     CommentDTO createComments(CommentDTO commentDTO,int userId,int postId);
+    //reply to a comment, on the same post
+    CommentDTO createReply(CommentDTO commentDTO,int userId,int parentId);
     CommentDTO updateComment(int commentId,CommentDTO commentDTO,int userId,int postId);
+    //deletes the comment and all of its replies
     void deleteComment(int commentId);
     PageResponse<CommentDTO> getCommentByPostId(int postId ,int pageNumber, int pageSize,String sortBy,String sortDir);
+    CursorPageResponse<CommentDTO> getCommentByPostIdByCursor(int postId, String cursor, int pageSize, String sortBy, String sortDir);
+    //top-level comments of a post, oldest first for ascending
+    CursorPageResponse<CommentDTO> getThreadsByPostId(int postId, String cursor, int pageSize, String sortDir);
+    //replies under a comment down to maxDepth levels, each after the comment it answers
+    CursorPageResponse<CommentDTO> getReplies(int commentId, String cursor, int pageSize, int maxDepth);
 }
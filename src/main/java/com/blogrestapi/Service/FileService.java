@@ -2,12 +2,20 @@ package com.blogrestapi.Service;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.Map;
 
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 @Service
 public interface FileService {
     String uploadFile(String path,MultipartFile file)throws IOException;
-    InputStream getFile(String path,String fileName)throws FileNotFoundException;
+    //the stored file as a readable resource; the caller streams it, nothing is read up front
+    Resource getFile(String path,String fileName)throws FileNotFoundException;
+    //same, for a generated variant (e.g. "thumb"); falls back to the original until the variant exists
+    Resource getFile(String path,String fileName,String size)throws FileNotFoundException;
+    //drops the reference a post or user held on an uploaded file; unreferenced files are collected later
+    void releaseFile(String path,String fileName);
+    //size -> file name of the variants generated for an uploaded image
+    Map<String,String> variantNames(String fileName);
 }
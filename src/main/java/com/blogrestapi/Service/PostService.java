@@ -6,8 +6,10 @@ import java.util.concurrent.CompletableFuture;
 
 import org.springframework.stereotype.Service;
 
+import com.blogrestapi.DTO.CursorPageResponse;
 import com.blogrestapi.DTO.PageResponse;
 import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.DTO.PostSummaryDTO;
 
 @Service
 public interface PostService {
@@ -19,13 +21,25 @@ public interface PostService {
     //save the post
     PostDTO createPost(PostDTO postDTO,int userId,int categoryId);
     //delete the post
-    void deletePostById(int id);
+    CompletableFuture<Void> deletePostById(int id);
     //patch the post(to update the only required filled(like postTitle or content or image etc))
     PostDTO updatePostField(int id,PostDTO postDTO,int userId,int categoryId);
-    //search post
-    List<PostDTO> searchPost(String keyword);
+    //search post by title and content, best match first
+    PageResponse<PostDTO> searchPost(String keyword,int pageNumber,int pageSize);
     //to get the post by userID
     PageResponse<PostDTO> getPostByUserId(int userId,int pageNumber,int pageSize,String sortBy,String sortDir);
     //to get the post by cateforyId
     PageResponse<PostDTO> getPostByCategoryId(int categoryId,int pageNumber,int pageSize,String sortBy,String sortDir);
+    //cursor(keyset) variants of the feeds above: no skip and no count, cursor is the previous nextCursor
+    CursorPageResponse<PostDTO> getAllPostByCursor(String cursor,int pageSize,String sortBy,String sortDir);
+    CursorPageResponse<PostDTO> getPostByUserIdByCursor(int userId,String cursor,int pageSize,String sortBy,String sortDir);
+    CursorPageResponse<PostDTO> getPostByCategoryIdByCursor(int categoryId,String cursor,int pageSize,String sortBy,String sortDir);
+    //summary variants of the feeds (view=summary): title, excerpt, image, date, author and category, no content
+    CompletableFuture<PageResponse<PostSummaryDTO>> getAllPostSummaries(int pageNumber, int pageSize, String sortBy, String sortDir);
+    PageResponse<PostSummaryDTO> getPostSummariesByUserId(int userId,int pageNumber,int pageSize,String sortBy,String sortDir);
+    PageResponse<PostSummaryDTO> getPostSummariesByCategoryId(int categoryId,int pageNumber,int pageSize,String sortBy,String sortDir);
+    PageResponse<PostSummaryDTO> searchPostSummaries(String keyword,int pageNumber,int pageSize);
+    CursorPageResponse<PostSummaryDTO> getAllPostSummariesByCursor(String cursor,int pageSize,String sortBy,String sortDir);
+    CursorPageResponse<PostSummaryDTO> getPostSummariesByUserIdByCursor(int userId,String cursor,int pageSize,String sortBy,String sortDir);
+    CursorPageResponse<PostSummaryDTO> getPostSummariesByCategoryIdByCursor(int categoryId,String cursor,int pageSize,String sortBy,String sortDir);
 }
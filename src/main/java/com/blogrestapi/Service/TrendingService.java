@@ -0,0 +1,18 @@
+package com.blogrestapi.Service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.blogrestapi.DTO.TrendingPostDTO;
+
+@Service
+public interface TrendingService {
+    enum Event { VIEW, LIKE, DISLIKE, COMMENT }
+
+    void record(int postId, Event event);
+    void movePost(int postId, int categoryId);
+    void removePost(int postId);
+    //categoryId null ranks every post
+    List<TrendingPostDTO> getTrending(Integer categoryId, int limit);
+}
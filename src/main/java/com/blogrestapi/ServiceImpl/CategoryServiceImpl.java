@@ -3,14 +3,19 @@ package com.blogrestapi.ServiceImpl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.blogrestapi.DTO.CategoryDTO;
 import com.blogrestapi.Dao.CategoryDao;
 import com.blogrestapi.Entity.Category;
 import com.blogrestapi.Exception.ResourceNotFoundException;
+import com.blogrestapi.Mapper.CategoryMapper;
 import com.blogrestapi.Service.CategoryService;
 
 @Service
@@ -18,27 +23,30 @@ public class CategoryServiceImpl implements CategoryService{
     @Autowired
     private CategoryDao categoryDao;
     @Autowired
-    private ModelMapper modelMapper;
+    private CategoryMapper categoryMapper;
     @Autowired
     private SequenceGeneratorService sequence;
+    @Autowired
+    private MongoTemplate mongoTemplate;
     @Override
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
        categoryDTO.setCategoryId((int)sequence.generateSequence("category_sequence"));
-       Category category=modelMapper.map(categoryDTO,Category.class);
+       Category category=categoryMapper.toEntity(categoryDTO);
+       category.setPostCount(0);
        Category savedCategory=this.categoryDao.save(category);
-       return modelMapper.map(savedCategory, CategoryDTO.class);
+       return categoryMapper.toDTO(savedCategory);
     }
 
     @Override
     public List<CategoryDTO> getAllCategory() {
          return this.categoryDao.findAll().stream()
-        .map(category->modelMapper.map(category,CategoryDTO.class))
+        .map(category->categoryMapper.toDTO(category))
         .collect(Collectors.toList());
     }
 
     @Override
     public CategoryDTO getCategoryBYId(int id) {
-       return this.categoryDao.findById(id).map(category->modelMapper.map(category, CategoryDTO.class))
+       return this.categoryDao.findById(id).map(category->categoryMapper.toDTO(category))
        .orElseThrow(()->new ResourceNotFoundException("Category not found with id: "+id));
     }
 
@@ -54,11 +62,16 @@ public class CategoryServiceImpl implements CategoryService{
     //update the category with the id
     @Override
     public CategoryDTO updateCategory(int id, CategoryDTO categoryDTO) {
-        Category category=this.categoryDao.findById(id)
-        .orElseThrow(()->new ResourceNotFoundException("Category not found with id: "+id));
-        category.setCategoryTitle(categoryDTO.getCategoryTitle());
-       Category updatedCategory= this.categoryDao.save(category);
-       return modelMapper.map(updatedCategory,CategoryDTO.class);
+        // only the title is written: postCount is maintained by $inc and must not be overwritten
+        Category updatedCategory=this.mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().set("categoryTitle", categoryDTO.getCategoryTitle()),
+                FindAndModifyOptions.options().returnNew(true),
+                Category.class);
+        if (updatedCategory == null) {
+            throw new ResourceNotFoundException("Category not found with id: "+id);
+        }
+       return categoryMapper.toDTO(updatedCategory);
     }
     
 }
@@ -0,0 +1,26 @@
+package com.blogrestapi.ServiceImpl;
+
+//materialized path of a comment: the zero-padded ids from its top-level comment down to itself, joined by '/'.
+//Fixed width keeps string order equal to id order within a level, so sorting by path lists a thread depth
+//first, and every descendant of a comment falls in one range of the (postId, path) index:
+//[path + "/", path + "0"), '0' being the character right after '/'.
+final class CommentPath {
+    private static final char SEPARATOR = '/';
+    private static final int WIDTH = 10; // digits of Integer.MAX_VALUE
+
+    private CommentPath() {
+    }
+
+    static String of(String parentPath, int commentId) {
+        String segment = String.format("%0" + WIDTH + "d", commentId);
+        return parentPath == null ? segment : parentPath + SEPARATOR + segment;
+    }
+
+    static String descendantsFrom(String path) {
+        return path + SEPARATOR;
+    }
+
+    static String descendantsTo(String path) {
+        return path + (char) (SEPARATOR + 1);
+    }
+}
@@ -4,14 +4,15 @@ import java.util.List;
 
 
 import com.blogrestapi.Config.AppConstant;
+import com.blogrestapi.DTO.CursorPageResponse;
 import com.blogrestapi.DTO.PageResponse;
 import com.blogrestapi.DTO.PostDTO;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import com.blogrestapi.DTO.CommentDTO;
@@ -21,35 +22,85 @@ import com.blogrestapi.Dao.UserDao;
 import com.blogrestapi.Entity.Comment;
 import com.blogrestapi.Entity.Post;
 import com.blogrestapi.Entity.User;
+import com.blogrestapi.Exception.BadRequestException;
 import com.blogrestapi.Exception.ResourceNotFoundException;
 import com.blogrestapi.Exception.UnauthorizedException;
+import com.blogrestapi.Mapper.CommentMapper;
 import com.blogrestapi.Service.CommentService;
+import com.blogrestapi.Service.TrendingService;
+import com.mongodb.DBRef;
 
 @Service
 public class CommentServiceImpl implements CommentService {
     @Autowired
     private CommentDao commentDao;
     @Autowired
-    private ModelMapper modelMapper;
+    private CommentMapper commentMapper;
     @Autowired
     private UserDao userDao;
     @Autowired
     private PostDao postDao;
     @Autowired
     private SequenceGeneratorService sequence;
+    @Autowired
+    private KeysetScroller keysetScroller;
+    @Autowired
+    private PostCounterService postCounterService;
+    @Autowired
+    private TrendingService trendingService;
 
     @Override
     public CommentDTO createComments(CommentDTO commentDTO, int userId, int postId) {
-       this.userDao.findById(userId)
-      .orElseThrow(()->new ResourceNotFoundException("User not found by id: "+userId));
-       this.postDao.findById(postId)
-      .orElseThrow(()->new ResourceNotFoundException("Post not found by id: "+postId));
+       if (!this.userDao.existsById(userId)) {
+           throw new ResourceNotFoundException("User not found by id: "+userId);
+       }
+       if (!this.postDao.existsById(postId)) {
+           throw new ResourceNotFoundException("Post not found by id: "+postId);
+       }
       commentDTO.setUserId(userId);
       commentDTO.setPostId(postId);
       commentDTO.setId((int)sequence.generateSequence("comment_sequence"));
-      Comment comment=modelMapper.map(commentDTO, Comment.class);
+      Comment comment=commentMapper.toEntity(commentDTO);
+      comment.setParentId(0);
+      comment.setDepth(0);
+      comment.setPath(CommentPath.of(null, comment.getCommentId()));
+      comment.setReplyCount(0);
       Comment savedComment=this.commentDao.save(comment);
-      return modelMapper.map(savedComment, CommentDTO.class);
+      this.postCounterService.incrementComments(postId, 1);
+      this.trendingService.record(postId, TrendingService.Event.COMMENT);
+      return commentMapper.toDTO(savedComment);
+    }
+
+    @Override
+    public CommentDTO createReply(CommentDTO commentDTO, int userId, int parentId) {
+      Comment parent=this.commentDao.findById(parentId)
+      .orElseThrow(()->new ResourceNotFoundException("Comment not found by id: "+parentId));
+      if (!this.userDao.existsById(userId)) {
+          throw new ResourceNotFoundException("User not found by id: "+userId);
+      }
+      commentDTO.setUserId(userId);
+      commentDTO.setPostId(parent.getPostId());
+      commentDTO.setId((int)sequence.generateSequence("comment_sequence"));
+      Comment reply=commentMapper.toEntity(commentDTO);
+      reply.setParentId(parent.getCommentId());
+      reply.setDepth(parent.getDepth()+1);
+      // comments written before threading are top level and get their path from DataMigrationService
+      String parentPath=parent.getPath()!=null ? parent.getPath() : CommentPath.of(null, parent.getCommentId());
+      reply.setPath(CommentPath.of(parentPath, reply.getCommentId()));
+      reply.setReplyCount(0);
+      Comment savedReply=this.commentDao.save(reply);
+      this.postCounterService.incrementReplies(parentId, 1);
+      this.postCounterService.incrementComments(savedReply.getPostId(), 1);
+      // deleteComment removes the parent before its subtree: a parent gone by now may have range-deleted
+      // before this reply was written, so the reply removes itself (and uncounts itself if it did the removal)
+      if (!this.commentDao.existsById(parentId)) {
+          if (this.commentDao.deleteByCommentId(savedReply.getCommentId()) > 0) {
+              this.postCounterService.incrementComments(savedReply.getPostId(), -1);
+          }
+          throw new ResourceNotFoundException("Comment not found by id: "+parentId);
+      }
+      this.trendingService.record(savedReply.getPostId(), TrendingService.Event.COMMENT);
+      return commentMapper.toDTO(savedReply);
     }
 
     @Override
@@ -60,27 +111,43 @@ public class CommentServiceImpl implements CommentService {
        .orElseThrow(()->new ResourceNotFoundException("User not found by id: "+userId));
        Post post=this.postDao.findById(postId)
        .orElseThrow(()->new ResourceNotFoundException("Post not found by id: "+postId));
-       if (existingComment.getUser().getId()!= user.getId()) {
+       if (existingComment.getUserId()!= user.getId()) {
         throw new UnauthorizedException("The user("+user.getUsername()+") cannot change the comment ");
        } 
-       if (existingComment.getPost().getPostId() != post.getPostId()) {
+       if (existingComment.getPostId() != post.getPostId()) {
         throw new UnauthorizedException("You cannnot change the comment of  Post("+post.getPostTitle()+")");
        }
        commentDTO.setId(commentId);
        commentDTO.setPostId(postId);
        commentDTO.setUserId(userId);
-        modelMapper.map(commentDTO, existingComment);
+        commentMapper.update(commentDTO, existingComment);
        Comment savedComment=this.commentDao.save(existingComment);
-       return modelMapper.map(savedComment, CommentDTO.class);
+       this.postCounterService.touchPost(postId);
+       return commentMapper.toDTO(savedComment);
 
     }
 
     @Override
     public void deleteComment(int commentId) {
-        if (!this.commentDao.existsById(commentId)) {
+        Comment comment=this.commentDao.findById(commentId)
+                .orElseThrow(()->new ResourceNotFoundException("Comment not found with id: "+commentId));
+        // the comment goes first, so no reply can be added under it once the subtree is deleted
+        // (createReply re-checks its parent after writing); a concurrent delete that got there first
+        // owns the counters
+        if (this.commentDao.deleteByCommentId(commentId) == 0) {
             throw new ResourceNotFoundException("Comment not found with id: "+commentId);
         }
-        this.commentDao.deleteById(commentId);
+        // the replies go with the comment: one range delete over its subtree, however deep
+        long deleted=0;
+        if (comment.getPath() != null) {
+            deleted=this.commentDao.deleteByPostIdAndPathBetween(comment.getPostId(),
+                    CommentPath.descendantsFrom(comment.getPath()), CommentPath.descendantsTo(comment.getPath()));
+        }
+        if (comment.getParentId() != 0) {
+            this.postCounterService.incrementReplies(comment.getParentId(), -1);
+        }
+        // only what was actually removed is uncounted
+        this.postCounterService.incrementComments(comment.getPostId(), -(deleted+1));
     }
 
     @Override
@@ -95,7 +162,7 @@ public class CommentServiceImpl implements CommentService {
         Page<Comment> page =this.commentDao.findCommentByPost(getPost,pageable);
         List<Comment> getComment =page.getContent();
         List<CommentDTO> getCommentDTO = getComment.stream()
-                 .map(comment-> modelMapper.map(comment, CommentDTO.class)).toList();
+                 .map(comment-> commentMapper.toDTO(comment)).toList();
         long totalElement=page.getTotalElements();
         int totalPage=page.getTotalPages();
         boolean lastPage=page.isLast();
@@ -113,6 +180,43 @@ public class CommentServiceImpl implements CommentService {
 
     }
 
+    @Override
+    public CursorPageResponse<CommentDTO> getCommentByPostIdByCursor(int postId, String cursor, int pageSize, String sortBy, String sortDir) {
+        if (!this.postDao.existsById(postId)) {
+            throw new ResourceNotFoundException("Cannot find the post by id: "+postId);
+        }
+        return this.keysetScroller.scroll(Criteria.where("post").is(new DBRef("posts", postId)), Comment.class,
+                cursor, pageSize, sortBy, sortDir, comment -> commentMapper.toDTO(comment));
+    }
+
+    @Override
+    public CursorPageResponse<CommentDTO> getThreadsByPostId(int postId, String cursor, int pageSize, String sortDir) {
+        if (!this.postDao.existsById(postId)) {
+            throw new ResourceNotFoundException("Cannot find the post by id: "+postId);
+        }
+        return this.keysetScroller.scroll(Criteria.where("postId").is(postId).and("parentId").is(0), Comment.class,
+                cursor, pageSize, "path", sortDir, comment -> commentMapper.toDTO(comment));
+    }
+
+    @Override
+    public CursorPageResponse<CommentDTO> getReplies(int commentId, String cursor, int pageSize, int maxDepth) {
+        if (maxDepth < 1) {
+            throw new BadRequestException("maxDepth must be positive");
+        }
+        Comment comment=this.commentDao.findById(commentId)
+                .orElseThrow(()->new ResourceNotFoundException("Comment not found with id: "+commentId));
+        String path=comment.getPath()!=null ? comment.getPath() : CommentPath.of(null, commentId);
+        // direct replies come off the (postId, parentId, path) index; deeper expansion is one range
+        // scan of the subtree on (postId, path), in path order so each reply follows its parent
+        Criteria filter=maxDepth==1
+                ? Criteria.where("postId").is(comment.getPostId()).and("parentId").is(commentId)
+                : Criteria.where("postId").is(comment.getPostId())
+                        .and("path").gt(CommentPath.descendantsFrom(path)).lt(CommentPath.descendantsTo(path))
+                        .and("depth").lte(comment.getDepth()+maxDepth);
+        return this.keysetScroller.scroll(filter, Comment.class, cursor, pageSize, "path", AppConstant.SORT_DIR,
+                reply -> commentMapper.toDTO(reply));
+    }
+
     @Override
     public List<CommentDTO> getAllComments() {
         throw new UnsupportedOperationException("Unimplemented method 'getAllComments'");
@@ -120,7 +224,7 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     public CommentDTO findCommentById(int commentId) {
-       return this.commentDao.findById(commentId).map(comment->modelMapper.map(comment, CommentDTO.class))
+       return this.commentDao.findById(commentId).map(comment->commentMapper.toDTO(comment))
        .orElseThrow(()->new ResourceNotFoundException("Comment not found with id: "+commentId));
     }
     
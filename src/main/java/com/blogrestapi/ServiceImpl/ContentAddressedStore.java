@@ -0,0 +1,219 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Entity.StoredFile;
+
+//image files named by the sha-256 of their bytes, so the same upload is stored once however often it is sent.
+//Files live under two levels of fan-out directories taken from the hash (ab/cd/abcd...png), which keeps
+//every directory small as the file count grows. Each stored file is reference counted in stored_files;
+//a file nothing points at any more is deleted by the periodic collect() after a grace period.
+//collect() tombstones the document before touching the file and store() takes no reference to a
+//tombstoned one, so a file is never deleted after an upload of the same bytes was handed its name.
+@Component
+public class ContentAddressedStore {
+    private static final Logger log = LoggerFactory.getLogger(ContentAddressedStore.class);
+    // hash, then an optional variant suffix ("_thumb") and extension; variants share the original's shard
+    private static final Pattern NAME = Pattern.compile("^([0-9a-f]{64})(_[a-z]+)?(\\.[a-z0-9]{1,10})?$");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final String TEMP_DIRECTORY = ".tmp";
+    // how long store() waits for a collection of the same file to finish
+    private static final int ACQUIRE_ATTEMPTS = 50;
+    private static final long ACQUIRE_BACKOFF_MILLIS = 20;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ImageVariantService imageVariantService;
+    // a released file is kept this long, so an upload of the same bytes meanwhile revives it
+    @Value("${image.storage.gc-grace:PT1H}")
+    private Duration gcGrace;
+
+    public record Stored(String fileName, boolean created) {
+    }
+
+    //true for names this store produced; everything else is a legacy flat file
+    public static boolean isContentAddressed(String fileName) {
+        return fileName != null && NAME.matcher(fileName).matches();
+    }
+
+    //where a content-addressed name (original or variant) lives below the image directory
+    public static Path locate(Path directory, String fileName) {
+        Matcher matcher = NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return directory.resolve(fileName);
+        }
+        String hash = matcher.group(1);
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(fileName);
+    }
+
+    //hashes the upload while copying it to a temp file in the same file system, then moves it into
+    //place in one rename; if the same content is already stored the copy is discarded
+    public Stored store(Path directory, InputStream content, String originalName) throws IOException {
+        Path tempDirectory = Files.createDirectories(directory.resolve(TEMP_DIRECTORY));
+        Path temp = Files.createTempFile(tempDirectory, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream in = new DigestInputStream(content, digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String fileName = HexFormat.of().formatHex(digest.digest()) + extension(originalName);
+            Path target = locate(directory, fileName);
+            // counted before the file is placed: a concurrent collect() then sees the new reference
+            acquire(directory, fileName, size);
+            try {
+                if (Files.isRegularFile(target)) {
+                    return new Stored(fileName, false);
+                }
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // identical bytes won the race
+                    return new Stored(fileName, false);
+                }
+                return new Stored(fileName, true);
+            } catch (IOException | RuntimeException e) {
+                release(directory, fileName);
+                throw e;
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    //drops one reference; legacy flat files are not counted and are left alone
+    public void release(Path directory, String fileName) {
+        if (!isContentAddressed(fileName)) {
+            return;
+        }
+        this.mongoTemplate.updateFirst(byId(directory, fileName),
+                new Update().inc("refCount", -1).set("updatedAt", new Date()), StoredFile.class);
+    }
+
+    //deletes files whose last reference went away more than the grace period ago
+    @Scheduled(fixedDelayString = "${image.storage.gc-interval:3600000}",
+            initialDelayString = "${image.storage.gc-interval:3600000}")
+    public void collect() {
+        try {
+            Criteria unreferenced = Criteria.where("refCount").lte(0)
+                    .and("updatedAt").lt(new Date(System.currentTimeMillis() - this.gcGrace.toMillis()));
+            List<StoredFile> candidates = this.mongoTemplate.find(new Query(unreferenced).limit(1000), StoredFile.class);
+            int deleted = 0;
+            for (StoredFile candidate : candidates) {
+                // re-checked atomically: an upload may have taken a new reference since the find. From here
+                // on store() cannot take one; the tombstone's updatedAt lets a later run finish a collection
+                // this one was interrupted in
+                Query claim = new Query(Criteria.where("_id").is(candidate.getId()).andOperator(unreferenced));
+                StoredFile tombstone = this.mongoTemplate.findAndModify(claim,
+                        new Update().set("collecting", true).set("updatedAt", new Date()),
+                        FindAndModifyOptions.options().returnNew(true), StoredFile.class);
+                if (tombstone == null) {
+                    continue;
+                }
+                Query byTombstone = new Query(Criteria.where("_id").is(tombstone.getId()).and("collecting").is(true));
+                try {
+                    if (delete(tombstone)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    // the file stays, and so does a live document for it
+                    log.warn("Could not delete {}: {}", tombstone.getId(), e.getMessage());
+                    this.mongoTemplate.updateFirst(byTombstone, new Update().set("collecting", false), StoredFile.class);
+                    continue;
+                }
+                this.mongoTemplate.remove(byTombstone, StoredFile.class);
+            }
+            if (deleted > 0) {
+                log.info("Collected {} unreferenced image files", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Image collection failed: {}", e.getMessage());
+        }
+    }
+
+    //a tombstoned document does not match, so the upsert collides with it on _id: the file may be deleted
+    //any moment, and the reference is only taken once collect() has removed the document
+    private void acquire(Path directory, String fileName, long size) throws IOException {
+        Query live = byId(directory, fileName).addCriteria(Criteria.where("collecting").ne(true));
+        Update update = new Update().inc("refCount", 1).set("updatedAt", new Date())
+                .setOnInsert("directory", directory.toString())
+                .setOnInsert("fileName", fileName)
+                .setOnInsert("size", size);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                this.mongoTemplate.findAndModify(live, update, FindAndModifyOptions.options().upsert(true), StoredFile.class);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == ACQUIRE_ATTEMPTS) {
+                    throw new IOException("Stored file " + fileName + " is being collected, please try again");
+                }
+            }
+            try {
+                Thread.sleep(ACQUIRE_BACKOFF_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while storing " + fileName, e);
+            }
+        }
+    }
+
+    private boolean delete(StoredFile file) throws IOException {
+        Path directory = Paths.get(file.getDirectory());
+        boolean deleted = Files.deleteIfExists(locate(directory, file.getFileName()));
+        for (String variant : this.imageVariantService.variantNames(file.getFileName()).values()) {
+            Files.deleteIfExists(locate(directory, variant));
+        }
+        return deleted;
+    }
+
+    private static Query byId(Path directory, String fileName) {
+        return new Query(Criteria.where("_id").is(directory.resolve(fileName).toString()));
+    }
+
+    private static String extension(String originalName) {
+        if (originalName == null) {
+            return "";
+        }
+        String extension = originalName.substring(originalName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return originalName.contains(".") && EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+
+import com.blogrestapi.Exception.BadRequestException;
+
+//turns a keyset position (the sort key values of the last row) into an opaque url-safe token.
+//The token also records the sort it was issued for, so it cannot be replayed against another order,
+//and its keys must be exactly the sort keys: they end up in the range criteria, so a crafted token
+//naming other fields would otherwise filter on them
+final class CursorCodec {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    static String encode(String sortBy, String sortDir, Map<String, Object> keys) {
+        StringBuilder token = new StringBuilder(sortBy).append('\n').append(sortDir.toLowerCase());
+        keys.forEach((name, value) -> token.append('\n').append(name).append('=').append(encodeValue(value)));
+        return ENCODER.encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Map<String, Object> decode(String cursor, String sortBy, String sortDir, Collection<String> keyNames) {
+        try {
+            String[] lines = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\n");
+            if (lines.length < 3 || !lines[0].equals(sortBy) || !lines[1].equals(sortDir.toLowerCase())) {
+                throw new BadRequestException("Cursor was issued for a different sort order");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 2; i < lines.length; i++) {
+                int split = lines[i].indexOf('=');
+                keys.put(lines[i].substring(0, split), decodeValue(lines[i].substring(split + 1)));
+            }
+            if (keys.size() != lines.length - 2 || !keys.keySet().equals(new HashSet<>(keyNames))) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            return keys;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    //type tag + value, so ints, longs and dates come back as the same bson types they left as
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return "n:";
+        }
+        if (value instanceof Integer) {
+            return "i:" + value;
+        }
+        if (value instanceof Long) {
+            return "l:" + value;
+        }
+        if (value instanceof Double) {
+            return "d:" + value;
+        }
+        if (value instanceof Date date) {
+            return "t:" + date.getTime();
+        }
+        if (value instanceof ObjectId objectId) {
+            return "o:" + objectId.toHexString();
+        }
+        return "s:" + ENCODER.encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object decodeValue(String encoded) {
+        String value = encoded.substring(2);
+        return switch (encoded.charAt(0)) {
+            case 'n' -> null;
+            case 'i' -> Integer.valueOf(value);
+            case 'l' -> Long.valueOf(value);
+            case 'd' -> Double.valueOf(value);
+            case 't' -> new Date(Long.parseLong(value));
+            case 'o' -> new ObjectId(value);
+            case 's' -> new String(DECODER.decode(value), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown cursor value type");
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.blogrestapi.Entity.Category;
+import com.blogrestapi.Entity.Comment;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.User;
+
+//idempotent one-off data fixes for documents written by older versions of the app;
+//runs off the startup thread and only touches documents that still need the change
+@Service
+public class DataMigrationService {
+    private static final Logger log = LoggerFactory.getLogger(DataMigrationService.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            backfillPostReferenceIds();
+            backfillPostExcerpts();
+            removeReferenceArrays();
+            backfillCommentThreads();
+            backfillPostVersions();
+        } catch (RuntimeException e) {
+            log.warn("Data migration failed: {}", e.getMessage());
+        }
+    }
+
+    //copies the ids out of the user/category DBRefs into the plain userId/categoryId fields
+    private void backfillPostReferenceIds() {
+        Query query = new Query(Criteria.where("userId").exists(false));
+        query.fields().include("user").include("category");
+        int migrated = updateEach(Post.class, query, post -> {
+            Object userId = PostCounterService.referencedId(post.get("user"));
+            Object categoryId = PostCounterService.referencedId(post.get("category"));
+            return new Update()
+                    .set("userId", userId != null ? userId : 0)
+                    .set("categoryId", categoryId != null ? categoryId : 0);
+        });
+        if (migrated > 0) {
+            log.info("Backfilled userId/categoryId on {} posts", migrated);
+        }
+    }
+
+    //posts written before summaries existed have no excerpt for the summary feeds to show
+    private void backfillPostExcerpts() {
+        Query query = new Query(Criteria.where("excerpt").exists(false));
+        query.fields().include("content");
+        int migrated = updateEach(Post.class, query, post -> new Update().set("excerpt", PostExcerpt.of(post.getString("content"))));
+        if (migrated > 0) {
+            log.info("Backfilled excerpt on {} posts", migrated);
+        }
+    }
+
+    //the post.comments, user.post and category.post arrays of DBRefs grew with every post/comment and were
+    //loaded with their owner; they are now queries (by post reference, userId, categoryId) plus counters
+    //that PostCounterService.reconcileCounters fills in for existing documents
+    private void removeReferenceArrays() {
+        long posts = unset(Post.class, "comments");
+        long users = unset(User.class, "post");
+        long categories = unset(Category.class, "post");
+        if (posts + users + categories > 0) {
+            log.info("Removed reference arrays from {} posts, {} users and {} categories", posts, users, categories);
+        }
+    }
+
+    private long unset(Class<?> type, String field) {
+        return this.mongoTemplate.updateMulti(new Query(Criteria.where(field).exists(true)), new Update().unset(field),
+                this.mongoTemplate.getCollectionName(type)).getModifiedCount();
+    }
+
+    //comments written before threading are top level: their path is their own id. The post/user ids are
+    //copied out of the DBRefs so that listing comments never dereferences them
+    private void backfillCommentThreads() {
+        Query query = new Query(Criteria.where("path").exists(false));
+        query.fields().include("post").include("user");
+        int migrated = updateEach(Comment.class, query, comment -> {
+            Object postId = PostCounterService.referencedId(comment.get("post"));
+            Object userId = PostCounterService.referencedId(comment.get("user"));
+            return new Update()
+                    .set("postId", postId != null ? postId : 0)
+                    .set("userId", userId != null ? userId : 0)
+                    .set("parentId", 0)
+                    .set("path", CommentPath.of(null, comment.getInteger("_id")))
+                    .set("depth", 0)
+                    .set("replyCount", 0L);
+        });
+        if (migrated > 0) {
+            log.info("Backfilled thread fields on {} comments", migrated);
+        }
+    }
+
+    //a created post starts at version 1; posts from before versioning were last written at their postDate.
+    //version is only what the post's ETag and cached reads are validated against, so until this runs such
+    //a post is served with version 0 and no Last-Modified
+    private void backfillPostVersions() {
+        Query query = new Query(Criteria.where(PostCounterService.VERSION).exists(false));
+        query.fields().include("postDate");
+        int migrated = updateEach(Post.class, query, post -> new Update()
+                .set(PostCounterService.VERSION, 1L)
+                .set(PostCounterService.LAST_MODIFIED, post.get("postDate")));
+        if (migrated > 0) {
+            log.info("Backfilled version/lastModified on {} posts", migrated);
+        }
+    }
+
+    //streams the matching documents and applies the update built for each, in unordered bulk batches
+    private int updateEach(Class<?> type, Query query, Function<Document, Update> updateFor) {
+        BulkOperations bulk = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        int pending = 0;
+        int migrated = 0;
+        try (Stream<Document> docs = this.mongoTemplate.stream(query, Document.class,
+                this.mongoTemplate.getCollectionName(type))) {
+            for (Document doc : (Iterable<Document>) docs::iterator) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(doc.get("_id"))), updateFor.apply(doc));
+                migrated++;
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+        return migrated;
+    }
+}
@@ -1,24 +1,48 @@
 package com.blogrestapi.ServiceImpl;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.blogrestapi.Service.FileService;
 @Service
 public class FileServiceImpl  implements FileService{
+    @Autowired
+    private ImageVariantService imageVariantService;
+    @Autowired
+    private ContentAddressedStore contentAddressedStore;
+    // content-addressed: deduplicated by hash and reference counted; uuid: a new file per upload
+    @Value("${image.storage.mode:content-addressed}")
+    private String storageMode;
 
     @Override
     public String uploadFile(String path, MultipartFile file) throws IOException {
+        if (!"uuid".equalsIgnoreCase(this.storageMode)) {
+            Path directory=Paths.get(path).normalize();
+            ContentAddressedStore.Stored stored;
+            try (InputStream in=file.getInputStream()) {
+                stored=this.contentAddressedStore.store(directory, in, file.getOriginalFilename());
+            }
+            // a repeated upload already has its variants
+            if (stored.created()) {
+                this.imageVariantService.submit(ContentAddressedStore.locate(directory, stored.fileName()).toAbsolutePath().normalize());
+            }
+            return stored.fileName();
+        }
         String name=file.getOriginalFilename();
         String randomID=UUID.randomUUID().toString();
         @SuppressWarnings("null")
@@ -29,14 +53,36 @@ public class FileServiceImpl  implements FileService{
             f.mkdir();
         }
         Files.copy(file.getInputStream(),Paths.get(fullPath),StandardCopyOption.REPLACE_EXISTING);
+        // thumb/medium are produced off the request thread
+        this.imageVariantService.submit(Paths.get(fullPath).toAbsolutePath().normalize());
        return fileName;
     }
 
     @Override
-    public InputStream getFile(String path, String fileName) throws FileNotFoundException {
-        String fullPath=path+File.separator+fileName;
-        InputStream is=new FileInputStream(fullPath);
-        return is;
+    public Resource getFile(String path, String fileName) throws FileNotFoundException {
+        return getFile(path, fileName, ImageVariantService.ORIGINAL);
+    }
+
+    @Override
+    public Resource getFile(String path, String fileName, String size) throws FileNotFoundException {
+        Path directory=Paths.get(path).toAbsolutePath().normalize();
+        // hashed names live in fan-out subdirectories, older uploads directly in the directory
+        Path file=ContentAddressedStore.locate(directory, fileName).normalize();
+        // the name comes from the url: it must not climb out of the image directory
+        if (!file.startsWith(directory) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new FileNotFoundException(fileName);
+        }
+        return new FileSystemResource(this.imageVariantService.resolve(file, size));
+    }
+
+    @Override
+    public void releaseFile(String path, String fileName) {
+        this.contentAddressedStore.release(Paths.get(path).normalize(), fileName);
+    }
+
+    @Override
+    public Map<String, String> variantNames(String fileName) {
+        return this.imageVariantService.variantNames(fileName);
     }
     
 }
@@ -0,0 +1,199 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.blogrestapi.Exception.BadRequestException;
+
+//downscaled copies of uploaded images (thumb, medium) so feeds do not ship full-size originals.
+//Variant names are derived from the original's name, so they can be recorded on a post or user
+//as soon as the upload is stored; generation runs later on the bounded imageVariantExecutor.
+//When that queue is full the work is shed, and the variant is generated on its first request instead
+//(which serves the original until then).
+@Service
+public class ImageVariantService {
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+    public static final String ORIGINAL = "original";
+
+    @Autowired
+    @Qualifier("imageVariantExecutor")
+    private ThreadPoolTaskExecutor executor;
+    // the longest side of each variant, in pixels
+    private final Map<String, Integer> variants = new LinkedHashMap<>();
+    // images larger than this are never decoded, whatever their file size
+    @Value("${image.max-pixels:40000000}")
+    private long maxPixels;
+    // originals with a generation queued or running, so one image is never processed twice at once
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(@Value("${image.variants.thumb:200}") int thumb,
+                               @Value("${image.variants.medium:800}") int medium) {
+        this.variants.put("thumb", thumb);
+        this.variants.put("medium", medium);
+    }
+
+    //size -> file name of that variant; empty when there is no stored image
+    public Map<String, String> variantNames(String fileName) {
+        Map<String, String> names = new LinkedHashMap<>();
+        if (fileName == null || fileName.isBlank()) {
+            return names;
+        }
+        this.variants.keySet().forEach(size -> names.put(size, variantName(fileName, size)));
+        return names;
+    }
+
+    //queues generation of every variant of a stored original; never blocks the caller
+    public void submit(Path original) {
+        if (!this.inFlight.add(original)) {
+            return;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    this.inFlight.remove(original);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            this.inFlight.remove(original);
+            log.debug("Image variant queue full, skipped {}", original.getFileName());
+        }
+    }
+
+    //the file to serve for a requested size: the variant when it exists, otherwise the original.
+    //A variant is served as-is, so no variant of a variant is ever named or generated, and only
+    //content-addressed originals are generated lazily (their variants are released with them)
+    public Path resolve(Path original, String size) {
+        if (size == null || size.isBlank() || ORIGINAL.equalsIgnoreCase(size)) {
+            return original;
+        }
+        String key = size.toLowerCase();
+        if (!this.variants.containsKey(key)) {
+            throw new BadRequestException("Unknown image size: " + size + ", expected one of "
+                    + this.variants.keySet() + " or " + ORIGINAL);
+        }
+        String fileName = original.getFileName().toString();
+        if (isVariant(fileName)) {
+            return original;
+        }
+        Path variant = original.resolveSibling(variantName(fileName, key));
+        if (Files.isRegularFile(variant)) {
+            return variant;
+        }
+        if (ContentAddressedStore.isContentAddressed(fileName) && Files.isRegularFile(original)) {
+            submit(original);
+        }
+        return original;
+    }
+
+    //true when the name already carries one of the configured variant suffixes ("x_thumb.jpg")
+    public boolean isVariant(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String stem = dot < 0 ? fileName : fileName.substring(0, dot);
+        return this.variants.keySet().stream().anyMatch(size -> stem.endsWith("_" + size));
+    }
+
+    private static String variantName(String fileName, String size) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0
+                ? fileName + "_" + size
+                : fileName.substring(0, dot) + "_" + size + fileName.substring(dot);
+    }
+
+    private void generate(Path original) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return; // not an image format ImageIO can read
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                String format = reader.getFormatName();
+                if (!ImageIO.getImageWritersByFormatName(format).hasNext()) {
+                    return;
+                }
+                // header only: the size is known before a single pixel is decoded
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > this.maxPixels) {
+                    log.warn("Not generating variants for {}: {}x{} exceeds image.max-pixels", original.getFileName(), width, height);
+                    return;
+                }
+                int largest = this.variants.values().stream().max(Integer::compare).orElse(0);
+                // subsample while decoding (keep >= 2x the largest variant for quality) so a huge
+                // original never materializes at full resolution on the heap
+                int step = Math.max(1, Math.max(width, height) / (largest * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+                for (Map.Entry<String, Integer> variant : this.variants.entrySet()) {
+                    Path target = original.resolveSibling(variantName(original.getFileName().toString(), variant.getKey()));
+                    write(scale(decoded, variant.getValue(), format), format, target);
+                }
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for {}: {}", original.getFileName(), e.getMessage());
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int bound, String format) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) bound / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        boolean opaque = format.equalsIgnoreCase("jpeg") || format.equalsIgnoreCase("jpg") || format.equalsIgnoreCase("bmp");
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    //written next to the target and moved into place, so a reader never sees a half-written variant
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                return;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Config.AppConstant;
+import com.blogrestapi.DTO.CursorPageResponse;
+import com.blogrestapi.Entity.Comment;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Exception.BadRequestException;
+
+//keyset pagination: each page is a range predicate on (sortBy, id) after the previous page's
+//last row, so page N costs the same as page 1 and no count query is run
+@Component
+public class KeysetScroller {
+    // the scalar properties each scrolled type may be sorted on, and so the only ones a cursor can name
+    private static final Map<Class<?>, Set<String>> SORTABLE = Map.of(
+            Post.class, Set.of("postId", "postTitle", "postDate", "lastModified", "userId", "categoryId",
+                    "likeCount", "dislikeCount", "commentCount"),
+            Comment.class, Set.of("commentId", "postId", "userId", "parentId", "path", "depth", "replyCount"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public <T, D> CursorPageResponse<D> scroll(Criteria filter, Class<T> type, String cursor, int pageSize,
+                                               String sortBy, String sortDir, Function<T, D> mapper) {
+        return scroll(filter, type, null, cursor, pageSize, sortBy, sortDir, mapper);
+    }
+
+    //fields: the only properties to read (the sort keys are always added), null for whole documents
+    public <T, D> CursorPageResponse<D> scroll(Criteria filter, Class<T> type, Collection<String> fields, String cursor,
+                                               int pageSize, String sortBy, String sortDir, Function<T, D> mapper) {
+        MongoPersistentEntity<?> entity = this.mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type);
+        if (!SORTABLE.getOrDefault(type, Set.of()).contains(sortBy) || entity.getPersistentProperty(sortBy) == null) {
+            throw new BadRequestException("Cannot sort by: " + sortBy);
+        }
+        if (pageSize < 1) {
+            throw new BadRequestException("pageSize must be positive");
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase(AppConstant.SORT_DIR)
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        // the id breaks ties so rows sharing a sort value are neither skipped nor repeated
+        String idProperty = entity.getRequiredIdProperty().getName();
+        Sort sort = Sort.by(direction, sortBy);
+        if (!sortBy.equals(idProperty)) {
+            sort = sort.and(Sort.by(direction, idProperty));
+        }
+        Set<String> keyNames = sortBy.equals(idProperty) ? Set.of(idProperty) : Set.of(sortBy, idProperty);
+        ScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(CursorCodec.decode(cursor, sortBy, sortDir, keyNames));
+
+        // BasicQuery over a mutable document: scroll() merges its range predicate into the query
+        // object, which fails on the shared empty document of a criteria-less Query
+        Query query = new BasicQuery(new Document()).with(sort).limit(pageSize).with(position);
+        if (filter != null) {
+            query.addCriteria(filter);
+        }
+        if (fields != null) {
+            fields.forEach(query.fields()::include);
+            query.fields().include(sortBy);
+        }
+        Window<T> window = this.mongoTemplate.scroll(query, type);
+
+        List<D> data = window.getContent().stream().map(mapper).toList();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = CursorCodec.encode(sortBy, sortDir, last.getKeys());
+        }
+        return new CursorPageResponse<>("OK(200)", data, pageSize, nextCursor, nextCursor == null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Config.AppConstant;
+
+//drops only the cache entries a post write can change instead of flushing every post cache.
+//Page caches are keyed {ownerId, pageNumber, pageSize, sortBy, sortDir}, so an author's or a
+//category's pages are found by the first key element.
+@Component
+public class PostCacheEvictor {
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void evictPost(int postId) {
+        Cache cache = this.cacheManager.getCache(AppConstant.CACHE_POST);
+        if (cache != null) {
+            cache.evict(postId);
+        }
+    }
+
+    //a new, moved or deleted post can shift every page of the global feed
+    public void evictAllPostPages() {
+        Cache cache = this.cacheManager.getCache(AppConstant.CACHE_ALL_POSTS);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public void evictUserPages(int userId) {
+        evictPagesOwnedBy(AppConstant.CACHE_POST_BY_USERID, userId);
+    }
+
+    public void evictCategoryPages(int categoryId) {
+        evictPagesOwnedBy(AppConstant.CACHE_POST_BY_CATEGORYID, categoryId);
+    }
+
+    //evicts the post itself plus every page that can list it
+    public void evictPostWrite(int postId, int userId, int categoryId) {
+        evictPost(postId);
+        evictAllPostPages();
+        evictUserPages(userId);
+        evictCategoryPages(categoryId);
+    }
+
+    private void evictPagesOwnedBy(String cacheName, int ownerId) {
+        Cache cache = this.cacheManager.getCache(cacheName);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().asMap().keySet()
+                    .removeIf(key -> key instanceof List<?> parts
+                            && !parts.isEmpty()
+                            && Objects.equals(parts.get(0), ownerId));
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blogrestapi.Entity.Category;
+import com.blogrestapi.Entity.Comment;
+import com.blogrestapi.Entity.DisLike;
+import com.blogrestapi.Entity.Like;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.User;
+import com.mongodb.DBRef;
+
+//keeps the denormalized counters in step with the collections they count: likeCount/dislikeCount/commentCount
+//of a post (like, dislike, comments), postCount of a user and of a category (posts) and replyCount of a comment
+@Service
+public class PostCounterService {
+    private static final Logger log = LoggerFactory.getLogger(PostCounterService.class);
+    public static final String LIKE_COUNT = "likeCount";
+    public static final String DISLIKE_COUNT = "dislikeCount";
+    public static final String COMMENT_COUNT = "commentCount";
+    public static final String POST_COUNT = "postCount";
+    public static final String REPLY_COUNT = "replyCount";
+    public static final String VERSION = "version";
+    public static final String LAST_MODIFIED = "lastModified";
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private PostCacheEvictor postCacheEvictor;
+    @Value("${counter.reconcile.on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    public void incrementLikes(int postId, long delta) {
+        increment(postId, LIKE_COUNT, delta);
+    }
+
+    public void incrementDislikes(int postId, long delta) {
+        increment(postId, DISLIKE_COUNT, delta);
+    }
+
+    public void incrementComments(int postId, long delta) {
+        increment(postId, COMMENT_COUNT, delta);
+    }
+
+    //a comment of the post was edited: its comment pages changed but none of its counters did
+    public void touchPost(int postId) {
+        updatePost(postId, new Update());
+    }
+
+    public void incrementReplies(int commentId, long delta) {
+        Query query = new Query(Criteria.where("_id").is(commentId));
+        this.mongoTemplate.updateFirst(query, new Update().inc(REPLY_COUNT, delta), Comment.class);
+    }
+
+    //a post was written by userId in categoryId (delta 1) or no longer is (delta -1)
+    public void incrementPosts(int userId, int categoryId, long delta) {
+        Update update = new Update().inc(POST_COUNT, delta);
+        this.mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)), update, User.class);
+        this.mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(categoryId)), update, Category.class);
+    }
+
+    private void increment(int postId, String field, long delta) {
+        updatePost(postId, new Update().inc(field, delta));
+    }
+
+    //an edit of the post's own fields (updatePostField), applied like the counters so neither overwrites
+    //the other; returns the post as stored, or null when it no longer exists
+    public Post editPost(int postId, Update update) {
+        Query query = new Query(Criteria.where("_id").is(postId));
+        update.inc(VERSION, 1).currentDate(LAST_MODIFIED);
+        Post post = this.mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Post.class);
+        this.postCacheEvictor.evictPost(postId);
+        return post;
+    }
+
+    //single atomic update of the post document, no read-modify-write. Bumping the version invalidates
+    //the post's ETag; posts are never saved whole after creation, so no write can undo another
+    private void updatePost(int postId, Update update) {
+        Query query = new Query(Criteria.where("_id").is(postId));
+        update.inc(VERSION, 1).currentDate(LAST_MODIFIED);
+        this.mongoTemplate.updateFirst(query, update, Post.class);
+        // the cached PostDTO carries the counts and the version; feed pages catch up on their TTL
+        this.postCacheEvictor.evictPost(postId);
+    }
+
+    //backfills posts written before the counters existed, off the startup thread
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (this.reconcileOnStartup) {
+            reconcileCounters();
+        }
+    }
+
+    //recomputes every counter from the collections it counts to repair drift (e.g. a request that
+    //failed between its write and its $inc). The counters are read before the documents they count and a
+    //correction is only applied if none of them moved since, so an $inc landing in between makes the update
+    //miss rather than being overwritten. The guard cannot see a write still in flight across the run: a
+    //reaction or comment inserted after the read, counted here, whose $inc only lands after the correction
+    //is counted twice. That leaves the counter off by one per such write until the next run corrects it
+    @Scheduled(cron = "${counter.reconcile.cron:0 30 3 * * *}")
+    public void reconcileCounters() {
+        try {
+            List<String> postGuards = List.of(LIKE_COUNT, DISLIKE_COUNT, COMMENT_COUNT, VERSION);
+            Map<Object, Document> posts = observe(Post.class, postGuards);
+            Map<Object, Document> users = observe(User.class, List.of(POST_COUNT));
+            Map<Object, Document> categories = observe(Category.class, List.of(POST_COUNT));
+            Map<Object, Document> comments = observe(Comment.class, List.of(REPLY_COUNT));
+            long fixedPosts = correct(Post.class, posts, postGuards, Map.of(
+                    LIKE_COUNT, countByPost(Like.class),
+                    DISLIKE_COUNT, countByPost(DisLike.class),
+                    COMMENT_COUNT, countByPost(Comment.class)));
+            long fixedUsers = correct(User.class, users, List.of(POST_COUNT),
+                    Map.of(POST_COUNT, countBy(Post.class, "userId")));
+            long fixedCategories = correct(Category.class, categories, List.of(POST_COUNT),
+                    Map.of(POST_COUNT, countBy(Post.class, "categoryId")));
+            long fixedComments = correct(Comment.class, comments, List.of(REPLY_COUNT),
+                    Map.of(REPLY_COUNT, countBy(Comment.class, "parentId")));
+            log.info("Reconciled counters of {} posts, {} users, {} categories and {} comments; corrected {}, {}, {} and {}",
+                    posts.size(), users.size(), categories.size(), comments.size(),
+                    fixedPosts, fixedUsers, fixedCategories, fixedComments);
+        } catch (RuntimeException e) {
+            log.warn("Counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    //the guarded fields of every document of type, by id
+    private Map<Object, Document> observe(Class<?> type, List<String> guards) {
+        Map<Object, Document> observed = new HashMap<>();
+        Query all = new Query();
+        guards.forEach(all.fields()::include);
+        try (Stream<Document> docs = this.mongoTemplate.stream(all, Document.class,
+                this.mongoTemplate.getCollectionName(type))) {
+            docs.forEach(doc -> observed.put(doc.get("_id"), doc));
+        }
+        return observed;
+    }
+
+    //sets the counters that differ from their count, in bulk batches, each update conditional on the
+    //guarded fields still holding what observe() read. Returns how many documents were corrected.
+    //A post correction is a write like any other (updatePost): it bumps the version and evicts the post
+    private long correct(Class<?> type, Map<Object, Document> observed, List<String> guards,
+                         Map<String, Map<Object, Long>> counts) {
+        boolean versioned = guards.contains(VERSION);
+        BulkOperations bulk = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        List<Object> attempted = new ArrayList<>();
+        long corrected = 0;
+        for (Map.Entry<Object, Document> entry : observed.entrySet()) {
+            Update update = new Update();
+            counts.forEach((field, byId) -> {
+                long count = byId.getOrDefault(entry.getKey(), 0L);
+                if (!(entry.getValue().get(field) instanceof Number stored) || stored.longValue() != count) {
+                    update.set(field, count);
+                }
+            });
+            if (update.getUpdateObject().isEmpty()) {
+                continue;
+            }
+            Criteria unchanged = Criteria.where("_id").is(entry.getKey());
+            // is(null) also matches a missing field
+            guards.forEach(field -> unchanged.and(field).is(entry.getValue().get(field)));
+            if (versioned) {
+                update.inc(VERSION, 1).currentDate(LAST_MODIFIED);
+            }
+            bulk.updateOne(new Query(unchanged), update);
+            attempted.add(entry.getKey());
+            if (attempted.size() == BATCH_SIZE) {
+                corrected += flush(bulk, attempted, versioned);
+                bulk = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+            }
+        }
+        if (!attempted.isEmpty()) {
+            corrected += flush(bulk, attempted, versioned);
+        }
+        return corrected;
+    }
+
+    //the bulk result does not say which updates matched, so every attempted post is evicted
+    private long flush(BulkOperations bulk, List<Object> attempted, boolean versioned) {
+        long modified = bulk.execute().getModifiedCount();
+        if (versioned) {
+            attempted.forEach(postId -> this.postCacheEvictor.evictPost(((Number) postId).intValue()));
+        }
+        attempted.clear();
+        return modified;
+    }
+
+    //streams only the post reference of each like/dislike/comment and tallies it in memory
+    private Map<Object, Long> countByPost(Class<?> type) {
+        Map<Object, Long> counts = new HashMap<>();
+        Query query = new Query();
+        query.fields().include("post");
+        try (Stream<Document> docs = this.mongoTemplate.stream(query, Document.class,
+                this.mongoTemplate.getCollectionName(type))) {
+            docs.forEach(doc -> {
+                Object postId = referencedId(doc.get("post"));
+                if (postId != null) {
+                    counts.merge(postId, 1L, Long::sum);
+                }
+            });
+        }
+        return counts;
+    }
+
+    //documents of type per value of a plain id field (a post's userId/categoryId, a comment's parentId)
+    private Map<Object, Long> countBy(Class<?> type, String field) {
+        Map<Object, Long> counts = new HashMap<>();
+        Query query = new Query();
+        query.fields().include(field);
+        try (Stream<Document> docs = this.mongoTemplate.stream(query, Document.class,
+                this.mongoTemplate.getCollectionName(type))) {
+            docs.forEach(doc -> {
+                Object ownerId = doc.get(field);
+                if (ownerId != null) {
+                    counts.merge(ownerId, 1L, Long::sum);
+                }
+            });
+        }
+        return counts;
+    }
+
+    //a stored @DBRef comes back either as a DBRef or as a raw {$ref, $id} document
+    static Object referencedId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        if (ref instanceof Document document) {
+            return document.get("$id");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.blogrestapi.ServiceImpl;
+
+//the excerpt stored with each post: the content with whitespace collapsed, cut at a word boundary
+final class PostExcerpt {
+    static final int MAX_LENGTH = 200;
+    private static final String ELLIPSIS = "...";
+
+    private PostExcerpt() {
+    }
+
+    static String of(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= MAX_LENGTH) {
+            return text;
+        }
+        int end = text.lastIndexOf(' ', MAX_LENGTH);
+        if (end < MAX_LENGTH / 2) {
+            // one very long word: cut inside it, but not between the halves of a surrogate pair
+            end = Character.isHighSurrogate(text.charAt(MAX_LENGTH - 1)) ? MAX_LENGTH - 1 : MAX_LENGTH;
+        }
+        return text.substring(0, end).stripTrailing() + ELLIPSIS;
+    }
+}
@@ -0,0 +1,129 @@
+package com.blogrestapi.ServiceImpl;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Dao.PostDao;
+import com.blogrestapi.Dao.UserDao;
+import com.blogrestapi.Entity.DisLike;
+import com.blogrestapi.Entity.Like;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.User;
+import com.blogrestapi.Exception.ResourceNotFoundException;
+import com.mongodb.DBRef;
+import com.mongodb.client.result.UpdateResult;
+
+//like/dislike toggles without JVM locks: every step is a single conditional write on the
+//unique (post, user) index, so concurrent requests on any instance settle on one reaction
+//and the counters only move by what a delete or insert actually changed. The app does not
+//start without that index (UniqueIndexInitializer), so no toggle ever runs unguarded
+@Component
+public class PostReactionToggle {
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private UserDao userDao;
+    @Autowired
+    private PostDao postDao;
+    @Autowired
+    private SequenceGeneratorService generatorService;
+    @Autowired
+    private PostCounterService postCounterService;
+
+    public enum Reaction {
+        LIKE(Like.class, "like_sequence"),
+        DISLIKE(DisLike.class, "dislike_sequence");
+
+        private final Class<?> entity;
+        private final String sequenceName;
+
+        Reaction(Class<?> entity, String sequenceName) {
+            this.entity = entity;
+            this.sequenceName = sequenceName;
+        }
+
+        private Reaction opposite() {
+            return this == LIKE ? DISLIKE : LIKE;
+        }
+    }
+
+    //removes the reaction if the user already gave it, otherwise replaces the opposite one with it.
+    //Returns the id of the reaction now stored, or null when the toggle removed it.
+    public Integer toggle(Reaction reaction, int userId, int postId) {
+        requireUserAndPost(userId, postId);
+        if (delete(reaction, userId, postId)) {
+            return null;
+        }
+        delete(reaction.opposite(), userId, postId);
+        Query query = byUserAndPost(userId, postId);
+        int id = (int) this.generatorService.generateSequence(reaction.sequenceName);
+        // the refs are set explicitly: not every server copies DBRef equality fields into an upserted document
+        Update insert = new Update()
+                .setOnInsert("_id", id)
+                .setOnInsert("post", postRef(postId))
+                .setOnInsert("user", userRef(userId));
+        try {
+            UpdateResult result = this.mongoTemplate.upsert(query, insert, reaction.entity);
+            if (result.getUpsertedId() != null) {
+                increment(reaction, postId, 1);
+                return id;
+            }
+        } catch (DuplicateKeyException e) {
+            // a concurrent request inserted the same reaction first; it already counted it
+        }
+        query.fields().include("_id");
+        Document existing = this.mongoTemplate.findOne(query, Document.class,
+                this.mongoTemplate.getCollectionName(reaction.entity));
+        return existing != null ? existing.getInteger("_id") : null;
+    }
+
+    public void remove(Reaction reaction, int userId, int postId) {
+        requireUserAndPost(userId, postId);
+        delete(reaction, userId, postId);
+    }
+
+    //true if this call removed the reaction; only then is the counter decremented
+    private boolean delete(Reaction reaction, int userId, int postId) {
+        long deleted = this.mongoTemplate.remove(byUserAndPost(userId, postId), reaction.entity).getDeletedCount();
+        if (deleted > 0) {
+            increment(reaction, postId, -deleted);
+            return true;
+        }
+        return false;
+    }
+
+    private void increment(Reaction reaction, int postId, long delta) {
+        if (reaction == Reaction.LIKE) {
+            this.postCounterService.incrementLikes(postId, delta);
+        } else {
+            this.postCounterService.incrementDislikes(postId, delta);
+        }
+    }
+
+    private Query byUserAndPost(int userId, int postId) {
+        return new Query(Criteria.where("post").is(postRef(postId)).and("user").is(userRef(userId)));
+    }
+
+    private DBRef postRef(int postId) {
+        return new DBRef(this.mongoTemplate.getCollectionName(Post.class), postId);
+    }
+
+    private DBRef userRef(int userId) {
+        return new DBRef(this.mongoTemplate.getCollectionName(User.class), userId);
+    }
+
+    private void requireUserAndPost(int userId, int postId) {
+        if (!this.userDao.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        if (!this.postDao.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found with id: " + postId);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Entity.Post;
+
+//in-memory inverted index over post title + content, ranked with BM25.
+//Kept in step by PostServiceImpl on create/update/delete and rebuilt from a streaming
+//scan of the posts collection at startup; until that first build finishes isReady() is false.
+@Component
+public class PostSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // a title hit counts like this many body hits
+    private static final int TITLE_WEIGHT = 3;
+    // the last query word also matches longer words ("spri" -> "spring"), up to this many of them
+    private static final int MAX_PREFIX_EXPANSION = 50;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // non-null while a rebuild is streaming; live writes go to both indexes
+    private Index rebuilding;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    public void index(int postId, String title, String content) {
+        this.lock.writeLock().lock();
+        try {
+            this.index.put(postId, title, content);
+            if (this.rebuilding != null) {
+                this.rebuilding.put(postId, title, content);
+                this.rebuilding.touched.add(postId);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int postId) {
+        this.lock.writeLock().lock();
+        try {
+            this.index.remove(postId);
+            if (this.rebuilding != null) {
+                this.rebuilding.remove(postId);
+                this.rebuilding.touched.add(postId);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    //ids of the matching posts for one page, best first, plus the total number of matches
+    public Hits search(String text, int offset, int limit) {
+        List<String> terms = tokenize(text);
+        if (terms.isEmpty() || limit < 1 || offset < 0) {
+            return new Hits(List.of(), 0);
+        }
+        this.lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = this.index.score(new ArrayList<>(new LinkedHashSet<>(terms)));
+            return new Hits(topK(scores, offset, limit), scores.size());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Search index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    //streams id/title/content only, so memory use is bounded by the index, not the result set
+    public void rebuild() {
+        Index fresh = new Index();
+        this.lock.writeLock().lock();
+        try {
+            this.rebuilding = fresh;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        try {
+            Query query = new Query();
+            query.fields().include("postTitle").include("content");
+            try (Stream<Document> posts = this.mongoTemplate.stream(query, Document.class,
+                    this.mongoTemplate.getCollectionName(Post.class))) {
+                posts.forEach(post -> {
+                    if (!(post.get("_id") instanceof Integer postId)) {
+                        return;
+                    }
+                    this.lock.writeLock().lock();
+                    try {
+                        // a live write during the scan is newer than what the cursor returned
+                        if (!fresh.touched.contains(postId)) {
+                            fresh.put(postId, post.getString("postTitle"), post.getString("content"));
+                        }
+                    } finally {
+                        this.lock.writeLock().unlock();
+                    }
+                });
+            }
+            this.lock.writeLock().lock();
+            try {
+                fresh.touched.clear();
+                this.index = fresh;
+                this.ready = true;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            log.info("Search index built: {} posts, {} terms", fresh.documents.size(), fresh.postings.size());
+        } finally {
+            this.lock.writeLock().lock();
+            try {
+                this.rebuilding = null;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    //partial sort: keeps only offset + limit candidates in a min-heap instead of sorting every match
+    private static List<Integer> topK(Map<Integer, Double> scores, int offset, int limit) {
+        int wanted = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        Comparator<Map.Entry<Integer, Double>> byRank = Map.Entry.<Integer, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(byRank);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+    }
+
+    public record Hits(List<Integer> postIds, int total) {
+    }
+
+    //not thread-safe on its own, always used under the outer lock
+    private static final class Index {
+        // term -> (postId -> weighted term frequency); sorted so prefixes are a range lookup
+        private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+        // postId -> its weighted length and the terms it was indexed under, for removal
+        private final Map<Integer, IndexedDocument> documents = new HashMap<>();
+        private final Set<Integer> touched = new HashSet<>();
+        private long totalLength;
+
+        private void put(int postId, String title, String content) {
+            remove(postId);
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+            tokenize(content).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                this.postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(postId, entry.getValue());
+                length += entry.getValue();
+            }
+            this.documents.put(postId, new IndexedDocument(length, frequencies.keySet().toArray(String[]::new)));
+            this.totalLength += length;
+        }
+
+        private void remove(int postId) {
+            IndexedDocument document = this.documents.remove(postId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                Map<Integer, Integer> posting = this.postings.get(term);
+                if (posting != null) {
+                    posting.remove(postId);
+                    if (posting.isEmpty()) {
+                        this.postings.remove(term);
+                    }
+                }
+            }
+            this.totalLength -= document.length();
+        }
+
+        private Map<Integer, Double> score(List<String> terms) {
+            Map<Integer, Double> scores = new HashMap<>();
+            int documentCount = this.documents.size();
+            if (documentCount == 0) {
+                return scores;
+            }
+            double averageLength = (double) this.totalLength / documentCount;
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                if (i < terms.size() - 1) {
+                    addTerm(scores, this.postings.get(term), documentCount, averageLength);
+                    continue;
+                }
+                SortedMap<String, Map<Integer, Integer>> expansions = this.postings.subMap(term, term + Character.MAX_VALUE);
+                int expanded = 0;
+                for (Map<Integer, Integer> posting : expansions.values()) {
+                    addTerm(scores, posting, documentCount, averageLength);
+                    if (++expanded == MAX_PREFIX_EXPANSION) {
+                        break;
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private void addTerm(Map<Integer, Double> scores, Map<Integer, Integer> posting,
+                             int documentCount, double averageLength) {
+            if (posting == null) {
+                return;
+            }
+            int df = posting.size();
+            double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            posting.forEach((postId, tf) -> {
+                int length = this.documents.get(postId).length();
+                double norm = K1 * (1 - B + B * length / averageLength);
+                scores.merge(postId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+            });
+        }
+    }
+
+    private record IndexedDocument(int length, String[] terms) {
+    }
+}
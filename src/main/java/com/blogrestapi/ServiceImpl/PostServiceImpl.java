@@ -1,51 +1,71 @@
 package com.blogrestapi.ServiceImpl;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import com.blogrestapi.Config.AppConstant;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.cache.annotation.CacheEvict;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.blogrestapi.DTO.CursorPageResponse;
 import com.blogrestapi.DTO.PageResponse;
 import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.DTO.PostSummaryDTO;
 import com.blogrestapi.Dao.CategoryDao;
 import com.blogrestapi.Dao.PostDao;
 import com.blogrestapi.Dao.UserDao;
 import com.blogrestapi.Entity.Category;
 import com.blogrestapi.Entity.Post;
 import com.blogrestapi.Entity.User;
+import com.blogrestapi.Exception.BadRequestException;
 import com.blogrestapi.Exception.ResourceNotFoundException;
+import com.blogrestapi.Mapper.PostMapper;
+import com.blogrestapi.Service.FileService;
 import com.blogrestapi.Service.PostService;
+import com.blogrestapi.Service.TrendingService;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
-    private PostDao postDao;
-    private ModelMapper modelMapper;
-    private UserDao userDao;
-    private CategoryDao categoryDao;
-    private SequenceGeneratorService sequence;
-
-    private static final  String  CACHE_ALL_POSTS ="cacheAllPosts";
-    private static final String CACHE_POST = "cachePost";
-    private static final String CACHE_POST_BY_USERID = "cachePostByUserId";
-    private static  final String CACHE_POST_BY_CATEGORYID = "cachePostByCategoryId";
+    // property names of the summary projection, for the keyset scroller
+    private static final Set<String> SUMMARY_FIELDS = Document.parse(PostDao.SUMMARY_FIELDS).keySet();
+    private final PostDao postDao;
+    private final PostMapper postMapper;
+    private final UserDao userDao;
+    private final CategoryDao categoryDao;
+    private final SequenceGeneratorService sequence;
+    private final PostCacheEvictor postCacheEvictor;
+    private final PostCounterService postCounterService;
+    private final KeysetScroller keysetScroller;
+    private final PostSearchIndex postSearchIndex;
+    private final FileService fileService;
+    private final TrendingService trendingService;
+    @Value("${project.image}")
+    private String imagePath;
 
     @Async
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CACHE_ALL_POSTS)
+    @Cacheable(value = AppConstant.CACHE_ALL_POSTS, key = "{#pageNumber, #pageSize, #sortBy, #sortDir}")
     public CompletableFuture<PageResponse<PostDTO>> getAllPost(int pageNumber, int pageSize, String sortBy, String sortDir) {
 
         Sort sort=sortDir.equalsIgnoreCase(AppConstant.SORT_DIR)
@@ -54,7 +74,7 @@ public class PostServiceImpl implements PostService {
         Pageable pageable=PageRequest.of(pageNumber, pageSize,sort);
         Page<Post> page=this.postDao.findAll(pageable);
         List<PostDTO> allPost=page.getContent().stream().map(
-                e->modelMapper.map(e, PostDTO.class)
+                e->postMapper.toDTO(e)
         ).toList();
         long totalElement=page.getTotalElements();
         int totalPage=page.getTotalPages();
@@ -74,16 +94,15 @@ public class PostServiceImpl implements PostService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CACHE_POST, key = "#id")
+    @Cacheable(value = AppConstant.CACHE_POST, key = "#id")
     public CompletableFuture<PostDTO> getPostById(int id) {
         PostDTO fetchPostById = this.postDao.findById(id)
-                .map(post -> modelMapper.map(post, PostDTO.class))
+                .map(post -> postMapper.toDTO(post))
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with  id: " + id));
         return CompletableFuture.completedFuture(fetchPostById);
     }
 
     @Override
-    @CacheEvict(value = {CACHE_POST,CACHE_ALL_POSTS,CACHE_POST_BY_CATEGORYID,CACHE_POST_BY_USERID},allEntries = true)
     public PostDTO createPost(PostDTO postDTO, int userId, int categoryId) {
         postDTO.setPostId((int)sequence.generateSequence("post_sequence"));
         User user = this.userDao.findById(userId)
@@ -91,38 +110,87 @@ public class PostServiceImpl implements PostService {
         Category category = this.categoryDao.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with categoryId: " + categoryId));
 
-        Post post = modelMapper.map(postDTO, Post.class);
+        Post post = postMapper.toEntity(postDTO);
+        post.setExcerpt(PostExcerpt.of(post.getContent()));
         post.setImage(postDTO.getImage() != null ? postDTO.getImage() : "default.jpg");
+        post.setImageVariants(this.fileService.variantNames(postDTO.getImage()));
         post.setPostDate(new Date());
         post.setUser(user);
         post.setCategory(category);
+        post.setUserId(user.getId());
+        post.setCategoryId(category.getCategoryId());
+        post.setLikeCount(0);
+        post.setDislikeCount(0);
+        post.setCommentCount(0);
+        post.setVersion(1);
+        post.setLastModified(post.getPostDate());
         Post savedPost = this.postDao.save(post);
-        return modelMapper.map(savedPost, PostDTO.class);
+        this.postCounterService.incrementPosts(savedPost.getUserId(), savedPost.getCategoryId(), 1);
+        this.postCacheEvictor.evictPostWrite(savedPost.getPostId(), savedPost.getUserId(), savedPost.getCategoryId());
+        this.postSearchIndex.index(savedPost.getPostId(), savedPost.getPostTitle(), savedPost.getContent());
+        return postMapper.toDTO(savedPost);
     }
 
 
     @Async
     @Override
-    @CacheEvict(value = {CACHE_POST,CACHE_ALL_POSTS,CACHE_POST_BY_CATEGORYID,CACHE_POST_BY_USERID},allEntries = true)
-            public void deletePostById(int id) {
-        if (!this.postDao.existsById(id)) {
-            throw new ResourceNotFoundException("Post not found with id: " + id);
-        }
+    public CompletableFuture<Void> deletePostById(int id) {
+        Post post = this.postDao.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
         this.postDao.deleteById(id);
+        this.postCounterService.incrementPosts(post.getUserId(), post.getCategoryId(), -1);
+        this.postCacheEvictor.evictPostWrite(id, post.getUserId(), post.getCategoryId());
+        this.postSearchIndex.remove(id);
+        this.trendingService.removePost(id);
+        this.fileService.releaseFile(this.imagePath, post.getImage());
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    @CacheEvict(value = {CACHE_POST,CACHE_ALL_POSTS,CACHE_POST_BY_CATEGORYID,CACHE_POST_BY_USERID},allEntries = true)
-    public List<PostDTO> searchPost(String keyword) {
-        List<Post> listPost =this.postDao.findByPostTitleContainingIgnoreCase(keyword);
-        return listPost.stream().map(p->modelMapper.map(p, PostDTO.class)).toList();
+    public PageResponse<PostDTO> searchPost(String keyword,int pageNumber,int pageSize) {
+        return search(keyword, pageNumber, pageSize, this.postDao::findByPostTitleContainingIgnoreCase,
+                this.postDao::findAllById, post -> postMapper.toDTO(post));
+    }
+
+    private <D> PageResponse<D> search(String keyword, int pageNumber, int pageSize,
+                                       BiFunction<String, Pageable, Page<Post>> titleScan,
+                                       Function<Collection<Integer>, Iterable<Post>> findByIds,
+                                       Function<Post, D> mapper) {
+        if (pageNumber < 0 || pageSize < 1) {
+            throw new BadRequestException("pageNumber must not be negative and pageSize must be positive");
+        }
+        // the index ranks the first (pageNumber + 1) * pageSize hits in an int-sized window
+        if ((pageNumber + 1L) * pageSize > Integer.MAX_VALUE) {
+            throw new BadRequestException("pageNumber and pageSize are too large");
+        }
+        if (!this.postSearchIndex.isReady()) {
+            // index still building after startup: fall back to the title scan, paged
+            Page<Post> page = titleScan.apply(keyword, PageRequest.of(pageNumber, pageSize));
+            List<D> posts = page.getContent().stream().map(mapper).toList();
+            return new PageResponse<>("OK(200)", posts, pageSize, pageNumber,
+                    page.getTotalPages(), page.getTotalElements(), page.isLast());
+        }
+        PostSearchIndex.Hits hits = this.postSearchIndex.search(keyword, pageNumber * pageSize, pageSize);
+        // one $in lookup for the page, then put the posts back in rank order
+        Map<Integer, Post> found = new HashMap<>();
+        findByIds.apply(hits.postIds()).forEach(p -> found.put(p.getPostId(), p));
+        List<D> posts = hits.postIds().stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(mapper)
+                .toList();
+        int totalPage = (int) ((hits.total() + (long) pageSize - 1) / pageSize);
+        return new PageResponse<>("OK(200)", posts, pageSize, pageNumber,
+                totalPage, hits.total(), pageNumber >= totalPage - 1);
     }
 
     @Override
-    @CacheEvict(value = {CACHE_POST,CACHE_ALL_POSTS,CACHE_POST_BY_CATEGORYID,CACHE_POST_BY_USERID},allEntries = true)
     public PostDTO updatePostField(int id, PostDTO postDTO, int userId, int categoryId) {
         Post post = this.postDao.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
+        int previousUserId = post.getUserId();
+        int previousCategoryId = post.getCategoryId();
+        String previousImage = post.getImage();
         User user = this.userDao.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found by userId: " + userId));
         Category category = this.categoryDao.findById(categoryId)
@@ -133,12 +201,14 @@ public class PostServiceImpl implements PostService {
         if (!postDTO.getContent().isEmpty()) {
             post.setContent(postDTO.getContent());
         }  
+        post.setExcerpt(PostExcerpt.of(post.getContent()));
         if (postDTO.getImage()!=null) {
             post.setImage(postDTO.getImage());
         } else
         {
             post.setImage("default.jpg");
         }  
+        post.setImageVariants(this.fileService.variantNames(postDTO.getImage()));
         if ( postDTO.getCategoryId()!=category.getCategoryId() && postDTO.getCategoryId() !=0) {
             Category newCategory = this.categoryDao.findById(postDTO.getCategoryId())
                     .orElseThrow(() -> new ResourceNotFoundException("Category not found with categoryId: " + postDTO.getCategoryId()));
@@ -146,23 +216,53 @@ public class PostServiceImpl implements PostService {
         } else {
             post.setCategory(category);
         }
+        post.setCategoryId(post.getCategory().getCategoryId());
         post.setPostDate(new Date());
          post.setUser(user);
-        Post updatePost = this.postDao.save(post);
-        return modelMapper.map(updatePost, PostDTO.class);
+         post.setUserId(user.getId());
+        // only the edited fields are written, so a like or comment counted meanwhile is kept
+        Update update = new Update()
+                .set("postTitle", post.getPostTitle())
+                .set("content", post.getContent())
+                .set("excerpt", post.getExcerpt())
+                .set("image", post.getImage())
+                .set("imageVariants", post.getImageVariants())
+                .set("postDate", post.getPostDate())
+                .set("user", post.getUser())
+                .set("userId", post.getUserId())
+                .set("category", post.getCategory())
+                .set("categoryId", post.getCategoryId());
+        Post updatePost = this.postCounterService.editPost(id, update);
+        if (updatePost == null) {
+            throw new ResourceNotFoundException("Post not found with id: " + id);
+        }
+        if (previousUserId != updatePost.getUserId() || previousCategoryId != updatePost.getCategoryId()) {
+            this.postCounterService.incrementPosts(previousUserId, previousCategoryId, -1);
+            this.postCounterService.incrementPosts(updatePost.getUserId(), updatePost.getCategoryId(), 1);
+        }
+        this.postCacheEvictor.evictPostWrite(id, updatePost.getUserId(), updatePost.getCategoryId());
+        this.postSearchIndex.index(id, updatePost.getPostTitle(), updatePost.getContent());
+        this.trendingService.movePost(id, updatePost.getCategoryId());
+        // the image is always replaced: by a fresh upload (which took its own reference, even for the same bytes) or none
+        this.fileService.releaseFile(this.imagePath, previousImage);
+        // the post may have moved away from its previous author/category pages
+        this.postCacheEvictor.evictUserPages(previousUserId);
+        this.postCacheEvictor.evictCategoryPages(previousCategoryId);
+        return postMapper.toDTO(updatePost);
     }
 
     @Override
-    @Cacheable(value = CACHE_POST_BY_USERID, key = "#userId")
+    @Cacheable(value = AppConstant.CACHE_POST_BY_USERID, key = "{#userId, #pageNumber, #pageSize, #sortBy, #sortDir}")
     public PageResponse<PostDTO> getPostByUserId(int userId,int pageNumber,int pageSize,String sortBy,String sortDir) {
         Sort sort=sortDir.equalsIgnoreCase(AppConstant.SORT_DIR)
         ?Sort.by(sortBy).ascending():Sort.by(sortBy).descending();
-        User user =this.userDao.findById(userId)
-        .orElseThrow(()->new ResourceNotFoundException("User not found by this id: "+userId));
+        if (!this.userDao.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found by this id: "+userId);
+        }
         Pageable pageable=PageRequest.of(pageNumber, pageSize,sort);
-        Page<Post> page=this.postDao.findPostByUser(user,pageable);
+        Page<Post> page=this.postDao.findPostByUserId(userId,pageable);
         List<PostDTO> allPost=page.getContent().stream().map(
-            e->modelMapper.map(e, PostDTO.class)
+            e->postMapper.toDTO(e)
         ).toList();
         long totalElement=page.getTotalElements();
         int totalPage=page.getTotalPages();
@@ -179,18 +279,19 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    @Cacheable(value = CACHE_POST_BY_CATEGORYID,key = "#categoryId")
+    @Cacheable(value = AppConstant.CACHE_POST_BY_CATEGORYID,key = "{#categoryId, #pageNumber, #pageSize, #sortBy, #sortDir}")
     public PageResponse<PostDTO> getPostByCategoryId(int categoryId,int pageNumber,int pageSize,String sortBy,String sortDir) {
         Sort sort=sortDir.equalsIgnoreCase(AppConstant.SORT_DIR)
         ?Sort.by(sortBy).ascending():Sort.by(sortBy).descending();
         //to get the category with provide categoryID
-        Category category=this.categoryDao.findById(categoryId)
-        .orElseThrow(()->new ResourceNotFoundException("Category not found by this id: "+categoryId));
+        if (!this.categoryDao.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found by this id: "+categoryId);
+        }
 
         Pageable pageable=PageRequest.of(pageNumber, pageSize,sort);
-        Page<Post> pagePost=this.postDao.findPostByCategory(category,pageable);
+        Page<Post> pagePost=this.postDao.findPostByCategoryId(categoryId,pageable);
         List<PostDTO> allPost=pagePost.getContent().stream()
-        .map(post->modelMapper.map(post, PostDTO.class)).toList();
+        .map(post->postMapper.toDTO(post)).toList();
 
         long totalElement=pagePost.getTotalElements();
         int totalPage=pagePost.getTotalPages();
@@ -206,4 +307,99 @@ public class PostServiceImpl implements PostService {
         );
 
     }
+
+    @Override
+    public CursorPageResponse<PostDTO> getAllPostByCursor(String cursor, int pageSize, String sortBy, String sortDir) {
+        return this.keysetScroller.scroll(null, Post.class, cursor, pageSize, sortBy, sortDir,
+                post -> postMapper.toDTO(post));
+    }
+
+    @Override
+    public CursorPageResponse<PostDTO> getPostByUserIdByCursor(int userId, String cursor, int pageSize, String sortBy, String sortDir) {
+        if (!this.userDao.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found by this id: "+userId);
+        }
+        return this.keysetScroller.scroll(Criteria.where("userId").is(userId), Post.class, cursor, pageSize, sortBy, sortDir,
+                post -> postMapper.toDTO(post));
+    }
+
+    @Override
+    public CursorPageResponse<PostDTO> getPostByCategoryIdByCursor(int categoryId, String cursor, int pageSize, String sortBy, String sortDir) {
+        if (!this.categoryDao.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found by this id: "+categoryId);
+        }
+        return this.keysetScroller.scroll(Criteria.where("categoryId").is(categoryId), Post.class, cursor, pageSize, sortBy, sortDir,
+                post -> postMapper.toDTO(post));
+    }
+
+    @Async
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = AppConstant.CACHE_ALL_POSTS, key = "{#pageNumber, #pageSize, #sortBy, #sortDir, 'summary'}")
+    public CompletableFuture<PageResponse<PostSummaryDTO>> getAllPostSummaries(int pageNumber, int pageSize, String sortBy, String sortDir) {
+        Page<Post> page = this.postDao.findAllSummaries(PageRequest.of(pageNumber, pageSize, sort(sortBy, sortDir)));
+        return CompletableFuture.completedFuture(summaryPage("OK(200)", page, pageNumber, pageSize));
+    }
+
+    @Override
+    @Cacheable(value = AppConstant.CACHE_POST_BY_USERID, key = "{#userId, #pageNumber, #pageSize, #sortBy, #sortDir, 'summary'}")
+    public PageResponse<PostSummaryDTO> getPostSummariesByUserId(int userId, int pageNumber, int pageSize, String sortBy, String sortDir) {
+        if (!this.userDao.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found by this id: "+userId);
+        }
+        Page<Post> page = this.postDao.findSummaryByUserId(userId, PageRequest.of(pageNumber, pageSize, sort(sortBy, sortDir)));
+        return summaryPage("OK(200)", page, pageNumber, pageSize);
+    }
+
+    @Override
+    @Cacheable(value = AppConstant.CACHE_POST_BY_CATEGORYID, key = "{#categoryId, #pageNumber, #pageSize, #sortBy, #sortDir, 'summary'}")
+    public PageResponse<PostSummaryDTO> getPostSummariesByCategoryId(int categoryId, int pageNumber, int pageSize, String sortBy, String sortDir) {
+        if (!this.categoryDao.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found by this id: "+categoryId);
+        }
+        Page<Post> page = this.postDao.findSummaryByCategoryId(categoryId, PageRequest.of(pageNumber, pageSize, sort(sortBy, sortDir)));
+        return summaryPage("Ok(200)", page, pageNumber, pageSize);
+    }
+
+    @Override
+    public PageResponse<PostSummaryDTO> searchPostSummaries(String keyword, int pageNumber, int pageSize) {
+        return search(keyword, pageNumber, pageSize, this.postDao::findSummaryByPostTitleContainingIgnoreCase,
+                this.postDao::findSummaryByPostIdIn, post -> postMapper.toSummary(post));
+    }
+
+    @Override
+    public CursorPageResponse<PostSummaryDTO> getAllPostSummariesByCursor(String cursor, int pageSize, String sortBy, String sortDir) {
+        return this.keysetScroller.scroll(null, Post.class, SUMMARY_FIELDS, cursor, pageSize, sortBy, sortDir,
+                post -> postMapper.toSummary(post));
+    }
+
+    @Override
+    public CursorPageResponse<PostSummaryDTO> getPostSummariesByUserIdByCursor(int userId, String cursor, int pageSize, String sortBy, String sortDir) {
+        if (!this.userDao.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found by this id: "+userId);
+        }
+        return this.keysetScroller.scroll(Criteria.where("userId").is(userId), Post.class, SUMMARY_FIELDS, cursor, pageSize,
+                sortBy, sortDir, post -> postMapper.toSummary(post));
+    }
+
+    @Override
+    public CursorPageResponse<PostSummaryDTO> getPostSummariesByCategoryIdByCursor(int categoryId, String cursor, int pageSize, String sortBy, String sortDir) {
+        if (!this.categoryDao.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found by this id: "+categoryId);
+        }
+        return this.keysetScroller.scroll(Criteria.where("categoryId").is(categoryId), Post.class, SUMMARY_FIELDS, cursor,
+                pageSize, sortBy, sortDir, post -> postMapper.toSummary(post));
+    }
+
+    private static Sort sort(String sortBy, String sortDir) {
+        return sortDir.equalsIgnoreCase(AppConstant.SORT_DIR)
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+    }
+
+    private PageResponse<PostSummaryDTO> summaryPage(String status, Page<Post> page, int pageNumber, int pageSize) {
+        List<PostSummaryDTO> posts = page.getContent().stream().map(post -> postMapper.toSummary(post)).toList();
+        return new PageResponse<>(status, posts, pageSize, pageNumber,
+                page.getTotalPages(), page.getTotalElements(), page.isLast());
+    }
 }
@@ -0,0 +1,107 @@
+package com.blogrestapi.ServiceImpl;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.blogrestapi.Config.AppConstant;
+import com.blogrestapi.DTO.CommentDTO;
+import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.Entity.Category;
+import com.blogrestapi.Entity.Comment;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Exception.BadRequestException;
+import com.blogrestapi.Exception.ResourceNotFoundException;
+import com.blogrestapi.Mapper.PostMapper;
+import com.mongodb.DBRef;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//read-only queries on the reactive driver: results are emitted as the cursor delivers them and only as
+//fast as the subscriber requests, so a stream never buffers the whole feed. DBRefs cannot be resolved
+//reactively, so posts are read without user/category and comments as plain documents.
+@Component
+@ConditionalOnProperty(name = "reactive.read.enabled", havingValue = "true")
+public class ReactivePostReader {
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    @Autowired
+    private PostMapper postMapper;
+
+    public Flux<PostDTO> findPosts(String sortBy, String sortDir, int limit) {
+        return streamPosts(new Query(), sortBy, sortDir, limit);
+    }
+
+    public Mono<PostDTO> findPost(int id) {
+        return this.reactiveMongoTemplate.findOne(postQuery(new Query(Criteria.where("_id").is(id))), Post.class)
+                .map(post -> this.postMapper.toDTO(post))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Post not found with  id: " + id)));
+    }
+
+    public Flux<PostDTO> findPostsByCategory(int categoryId, String sortBy, String sortDir, int limit) {
+        return this.reactiveMongoTemplate.exists(new Query(Criteria.where("_id").is(categoryId)), Category.class)
+                .flatMapMany(exists -> exists
+                        ? streamPosts(new Query(Criteria.where("categoryId").is(categoryId)), sortBy, sortDir, limit)
+                        : Flux.error(new ResourceNotFoundException("Category not found by this id: " + categoryId)));
+    }
+
+    public Flux<CommentDTO> findComments(int postId, int limit) {
+        String posts = this.reactiveMongoTemplate.getCollectionName(Post.class);
+        Query query = new Query(Criteria.where("post").is(new DBRef(posts, postId)))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(requireLimit(limit));
+        return this.reactiveMongoTemplate.exists(new Query(Criteria.where("_id").is(postId)), Post.class)
+                .flatMapMany(exists -> exists
+                        ? this.reactiveMongoTemplate.find(query, Document.class,
+                                this.reactiveMongoTemplate.getCollectionName(Comment.class))
+                        : Flux.error(new ResourceNotFoundException("Post not found with id: " + postId)))
+                .map(ReactivePostReader::toCommentDTO);
+    }
+
+    private Flux<PostDTO> streamPosts(Query query, String sortBy, String sortDir, int limit) {
+        if (this.reactiveMongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Post.class).getPersistentProperty(sortBy) == null) {
+            return Flux.error(new BadRequestException("Cannot sort by: " + sortBy));
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase(AppConstant.SORT_DIR)
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        query.with(Sort.by(direction, sortBy).and(Sort.by(direction, "postId"))).limit(requireLimit(limit));
+        return this.reactiveMongoTemplate.find(postQuery(query), Post.class)
+                .map(post -> this.postMapper.toDTO(post));
+    }
+
+    //the references are left out: only their copied ids are needed for a PostDTO
+    private static Query postQuery(Query query) {
+        query.fields().exclude("user").exclude("category");
+        return query;
+    }
+
+    //0 means no limit
+    private static int requireLimit(int limit) {
+        if (limit < 0) {
+            throw new BadRequestException("limit must not be negative");
+        }
+        return limit;
+    }
+
+    private static CommentDTO toCommentDTO(Document document) {
+        CommentDTO comment = new CommentDTO();
+        comment.setId(document.getInteger("_id"));
+        comment.setComments(document.getString("comments"));
+        comment.setPostId(document.getInteger("postId", 0));
+        comment.setUserId(document.getInteger("userId", 0));
+        comment.setParentId(document.getInteger("parentId", 0));
+        comment.setDepth(document.getInteger("depth", 0));
+        if (document.get("replyCount") instanceof Number replyCount) {
+            comment.setReplyCount(replyCount.longValue());
+        }
+        return comment;
+    }
+}
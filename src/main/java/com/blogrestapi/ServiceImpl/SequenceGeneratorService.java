@@ -1,8 +1,13 @@
 package com.blogrestapi.ServiceImpl;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -12,20 +17,70 @@ import org.springframework.stereotype.Service;
 
 import com.blogrestapi.Entity.DatabaseSequence;
 
+//hi/lo allocator: each findAndModify reserves a whole block of ids for this instance,
+//which are then handed out from memory. Blocks never overlap between instances because
+//the reservation itself is a single atomic $inc on the sequence document.
 @Service
 public class SequenceGeneratorService {
     @Autowired
     private MongoTemplate mongoTemplate;
+    @Value("${sequence.block-size:1000}")
+    private long blockSize;
+
+    private final ConcurrentMap<String, IdBlock> blocks = new ConcurrentHashMap<>();
+    // a ReentrantLock, not synchronized: a virtual thread waiting on the database while holding it
+    // unmounts from its carrier instead of pinning it
+    private final ConcurrentMap<String, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
 
     public long generateSequence(String sequenceName)
     {
+        while (true) {
+            IdBlock block = this.blocks.get(sequenceName);
+            if (block != null) {
+                long id = block.next.getAndIncrement();
+                if (id <= block.last) {
+                    return id;
+                }
+            }
+            refill(sequenceName, block);
+        }
+    }
+
+    //only the thread that finds the block exhausted goes to the database; the others retry
+    //against whatever block it installs
+    private void refill(String sequenceName, IdBlock exhausted) {
+        ReentrantLock lock = this.refillLocks.computeIfAbsent(sequenceName, name -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (this.blocks.get(sequenceName) != exhausted) {
+                return;
+            }
+            long last = reserveBlock(sequenceName);
+            this.blocks.put(sequenceName, new IdBlock(last - this.blockSize + 1, last));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //returns the highest id of the freshly reserved block
+    private long reserveBlock(String sequenceName) {
         Query query =new Query(Criteria.where("_id").is(sequenceName));
-        Update update=new Update().inc("seq", 1);
+        Update update=new Update().inc("seq", this.blockSize);
         DatabaseSequence counter=mongoTemplate .findAndModify(
-            query, 
+            query,
             update,
             FindAndModifyOptions.options().returnNew(true).upsert(true),
             DatabaseSequence.class);
-         return !Objects.isNull(counter)?counter.getSeq():1;   
+        return !Objects.isNull(counter)?counter.getSeq():this.blockSize;
+    }
+
+    private static final class IdBlock {
+        private final AtomicLong next;
+        private final long last;
+
+        private IdBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
     }
 }
@@ -1,23 +1,144 @@
 package com.blogrestapi.ServiceImpl;
 
+import com.blogrestapi.Dao.RevokedTokenDao;
+import com.blogrestapi.Entity.RevokedToken;
+import com.blogrestapi.Security.JWTTokenHelper;
 import com.blogrestapi.Service.TokenBlackListService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+//revoked tokens, by sha-256, each kept only until its own exp.
+//Lookups go Bloom filter -> concurrent map, so the usual "not revoked" answer is a few bit reads.
+//Entries are persisted in revoked_tokens (TTL index on expiresAt), loaded at startup and polled
+//so a logout on one instance reaches the others within token.blacklist.sync-interval.
 @Service
 public class TokenBlackListServiceImpl implements TokenBlackListService {
-    Set<String> blackListedToken =new HashSet<>();
+    private static final Logger log = LoggerFactory.getLogger(TokenBlackListServiceImpl.class);
+
+    @Autowired
+    private RevokedTokenDao revokedTokenDao;
+    @Autowired
+    private JWTTokenHelper jwtTokenHelper;
+    @Value("${token.blacklist.bloom-bits:1048576}")
+    private int bloomBits;
+    @Value("${token.blacklist.bloom-hashes:5}")
+    private int bloomHashes;
+
+    // token hash -> expiry (epoch millis)
+    private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+    // the same entries ordered by expiry; poll() only returns the ones whose exp has passed
+    private final DelayQueue<ExpiringToken> expiryQueue = new DelayQueue<>();
+    private volatile TokenBloomFilter bloomFilter;
+    private volatile Date lastSync;
+
+    @PostConstruct
+    void init() {
+        this.bloomFilter = newBloomFilter();
+    }
+
     @Override
     public void blackListToken(String token) {
-        blackListedToken.add(token);
+        Claims claims;
+        try {
+            claims = this.jwtTokenHelper.verifyToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return; // expired or invalid tokens are rejected anyway
+        }
+        String tokenHash = JWTTokenHelper.tokenHash(token);
+        Date expiresAt = claims.getExpiration();
+        remember(tokenHash, expiresAt.getTime());
+        this.revokedTokenDao.save(new RevokedToken(tokenHash, expiresAt, new Date()));
     }
 
     @Override
     public boolean isTokenBlackListed(String token) {
-        return blackListedToken.contains(token);
+        String tokenHash = JWTTokenHelper.tokenHash(token);
+        if (!this.bloomFilter.mightContain(tokenHash)) {
+            return false;
+        }
+        Long expiresAt = this.revoked.get(tokenHash);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    //the first run (at startup, on the scheduler thread) loads every still-valid revocation;
+    //later runs pick up tokens revoked by other instances since the previous poll
+    @Scheduled(fixedDelayString = "${token.blacklist.sync-interval:30000}")
+    public void syncFromStore() {
+        try {
+            Date now = new Date();
+            Date previous = this.lastSync;
+            if (previous == null) {
+                this.revokedTokenDao.findByExpiresAtAfter(now)
+                        .forEach(entry -> remember(entry.getTokenHash(), entry.getExpiresAt().getTime()));
+                log.info("Token blacklist loaded {} revoked tokens", this.revoked.size());
+            } else {
+                // overlap a little so a write racing the previous poll is not missed
+                Date since = new Date(previous.getTime() - 5000);
+                this.revokedTokenDao.findByRevokedAtAfterAndExpiresAtAfter(since, now)
+                        .forEach(entry -> remember(entry.getTokenHash(), entry.getExpiresAt().getTime()));
+            }
+            this.lastSync = now;
+        } catch (RuntimeException e) {
+            log.warn("Token blacklist sync failed: {}", e.getMessage());
+        }
+    }
+
+    //drops entries whose exp has passed and rebuilds the Bloom filter without them
+    @Scheduled(fixedDelayString = "${token.blacklist.sweep-interval:60000}")
+    public void sweepExpired() {
+        int removed = 0;
+        ExpiringToken expired;
+        while ((expired = this.expiryQueue.poll()) != null) {
+            if (this.revoked.remove(expired.tokenHash, expired.expiresAt)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            TokenBloomFilter fresh = newBloomFilter();
+            this.revoked.keySet().forEach(fresh::put);
+            this.bloomFilter = fresh;
+            // anything revoked while the copy ran went into the old filter; add it again
+            this.revoked.keySet().forEach(fresh::put);
+        }
+    }
+
+    private void remember(String tokenHash, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (this.revoked.put(tokenHash, expiresAt) == null) {
+            this.expiryQueue.add(new ExpiringToken(tokenHash, expiresAt));
+        }
+        this.bloomFilter.put(tokenHash);
+    }
+
+    private TokenBloomFilter newBloomFilter() {
+        return new TokenBloomFilter(this.bloomBits, this.bloomHashes);
+    }
+
+    private record ExpiringToken(String tokenHash, Long expiresAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(this.expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
     }
 }
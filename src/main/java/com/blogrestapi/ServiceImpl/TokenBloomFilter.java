@@ -0,0 +1,60 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//lock-free Bloom filter over token hashes: mightContain() == false means the token was certainly
+//not revoked. Entries cannot be removed; the owner rebuilds a fresh filter after expiring entries.
+final class TokenBloomFilter {
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    TokenBloomFilter(int bitCount, int hashCount) {
+        this.bitCount = Math.max(64, bitCount);
+        this.hashCount = Math.max(1, hashCount);
+        this.bits = new AtomicLongArray((this.bitCount + 63) / 64);
+    }
+
+    void put(String key) {
+        long h1 = key.hashCode();
+        long h2 = secondHash(key);
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << (bit & 63);
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = this.bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!this.bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String key) {
+        long h1 = key.hashCode();
+        long h2 = secondHash(key);
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((this.bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long hash) {
+        return (int) Math.floorMod(hash, (long) this.bitCount);
+    }
+
+    //FNV-1a, independent of String.hashCode, for double hashing (h1 + i*h2)
+    private static long secondHash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash | 1;
+    }
+}
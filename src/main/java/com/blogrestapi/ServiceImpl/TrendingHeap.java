@@ -0,0 +1,164 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+//binary max-heap of post scores with a postId -> slot index, so a score can be changed or removed
+//in O(log n) without searching for it. Not thread-safe; TrendingServiceImpl guards it.
+final class TrendingHeap {
+    record Ranked(int postId, double score) {
+    }
+
+    private int[] postIds = new int[16];
+    private double[] scores = new double[16];
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private int size;
+
+    int size() {
+        return this.size;
+    }
+
+    boolean contains(int postId) {
+        return this.slots.containsKey(postId);
+    }
+
+    double score(int postId) {
+        Integer slot = this.slots.get(postId);
+        return slot != null ? this.scores[slot] : 0;
+    }
+
+    //adds delta to the post's score, inserting the post if it is not in the heap yet
+    void add(int postId, double delta) {
+        Integer slot = this.slots.get(postId);
+        if (slot == null) {
+            grow();
+            slot = this.size++;
+            this.postIds[slot] = postId;
+            this.scores[slot] = delta;
+            this.slots.put(postId, slot);
+            siftUp(slot);
+            return;
+        }
+        this.scores[slot] += delta;
+        if (delta > 0) {
+            siftUp(slot);
+        } else {
+            siftDown(slot);
+        }
+    }
+
+    //returns the score the post had, 0 if it was not in the heap
+    double remove(int postId) {
+        Integer slot = this.slots.remove(postId);
+        if (slot == null) {
+            return 0;
+        }
+        double score = this.scores[slot];
+        int last = --this.size;
+        if (slot != last) {
+            move(last, slot);
+            siftDown(slot);
+            siftUp(slot);
+        }
+        return score;
+    }
+
+    //multiplies every score by factor (> 0); the order, and so the heap, stays valid
+    void scale(double factor) {
+        for (int i = 0; i < this.size; i++) {
+            this.scores[i] *= factor;
+        }
+    }
+
+    //posts scoring below min, for the owner to remove
+    List<Integer> below(double min) {
+        List<Integer> found = new ArrayList<>();
+        for (int i = 0; i < this.size; i++) {
+            if (this.scores[i] < min) {
+                found.add(this.postIds[i]);
+            }
+        }
+        return found;
+    }
+
+    //the k highest scores in descending order, in O(k log k): a second heap holds the frontier
+    //of slots whose parents were already taken, so the rest of the heap is never visited
+    List<Ranked> top(int k) {
+        List<Ranked> ranked = new ArrayList<>(Math.min(k, this.size));
+        if (this.size == 0 || k <= 0) {
+            return ranked;
+        }
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> Double.compare(this.scores[b], this.scores[a]));
+        frontier.add(0);
+        while (ranked.size() < k && !frontier.isEmpty()) {
+            int slot = frontier.poll();
+            ranked.add(new Ranked(this.postIds[slot], this.scores[slot]));
+            int child = 2 * slot + 1;
+            if (child < this.size) {
+                frontier.add(child);
+            }
+            if (child + 1 < this.size) {
+                frontier.add(child + 1);
+            }
+        }
+        return ranked;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (this.scores[parent] >= this.scores[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int largest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < this.size && this.scores[left] > this.scores[largest]) {
+                largest = left;
+            }
+            if (right < this.size && this.scores[right] > this.scores[largest]) {
+                largest = right;
+            }
+            if (largest == slot) {
+                return;
+            }
+            swap(slot, largest);
+            slot = largest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int postId = this.postIds[a];
+        double score = this.scores[a];
+        this.postIds[a] = this.postIds[b];
+        this.scores[a] = this.scores[b];
+        this.postIds[b] = postId;
+        this.scores[b] = score;
+        this.slots.put(this.postIds[a], a);
+        this.slots.put(this.postIds[b], b);
+    }
+
+    private void move(int from, int to) {
+        this.postIds[to] = this.postIds[from];
+        this.scores[to] = this.scores[from];
+        this.slots.put(this.postIds[to], to);
+    }
+
+    private void grow() {
+        if (this.size == this.postIds.length) {
+            this.postIds = Arrays.copyOf(this.postIds, this.size * 2);
+            this.scores = Arrays.copyOf(this.scores, this.size * 2);
+        }
+    }
+}
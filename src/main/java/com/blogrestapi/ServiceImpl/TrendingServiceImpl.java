@@ -0,0 +1,319 @@
+package com.blogrestapi.ServiceImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blogrestapi.DTO.PostSummaryDTO;
+import com.blogrestapi.DTO.TrendingPostDTO;
+import com.blogrestapi.Dao.PostDao;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.TrendingScore;
+import com.blogrestapi.Exception.BadRequestException;
+import com.blogrestapi.Mapper.PostMapper;
+import com.blogrestapi.Service.TrendingService;
+import com.blogrestapi.ServiceImpl.TrendingHeap.Ranked;
+
+//a post's trending score is the sum of its event weights, each halved every trending.half-life.
+//It is kept incrementally: an event adds to the post's entry in the global heap and in its category's,
+//nothing is recounted. Forward decay: an event at t adds weight * 2^((t - landmark) / half-life), so
+//stored scores never need decaying to stay in order; dividing by the same factor for now gives their
+//current value. The landmark moves (one pass scaling every score) before the factors grow large.
+//Reads are served from top-k snapshots rebuilt every trending.refresh-interval, so a request costs O(k)
+//plus one $in lookup of its k posts. Scores are checkpointed to trending_scores and reloaded at startup;
+//each instance ranks the events it served.
+@Service
+public class TrendingServiceImpl implements TrendingService {
+    private static final Logger log = LoggerFactory.getLogger(TrendingServiceImpl.class);
+    // the landmark moves once new events weigh 2^16 times what they did at the landmark
+    private static final double MAX_HALF_LIVES = 16;
+    // scores that decayed below this (a single view four half-lives ago) are dropped
+    private static final double MIN_SCORE = 0.05;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private PostDao postDao;
+    @Autowired
+    private PostMapper postMapper;
+    @Value("${trending.half-life:PT6H}")
+    private Duration halfLife;
+    @Value("${trending.weights.view:1}")
+    private double viewWeight;
+    @Value("${trending.weights.like:5}")
+    private double likeWeight;
+    @Value("${trending.weights.dislike:-3}")
+    private double dislikeWeight;
+    @Value("${trending.weights.comment:8}")
+    private double commentWeight;
+    @Value("${trending.snapshot-size:100}")
+    private int snapshotSize;
+
+    // all guarded by this
+    private final TrendingHeap global = new TrendingHeap();
+    private final Map<Integer, TrendingHeap> byCategory = new HashMap<>();
+    private final Map<Integer, Integer> categoryOf = new HashMap<>();
+    // changed and removed since the last checkpoint
+    private final Set<Integer> dirty = new HashSet<>();
+    private final Set<Integer> removed = new HashSet<>();
+    private long landmark = System.currentTimeMillis();
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of());
+
+    //the ranks a request reads, with their scores decayed to when the snapshot was taken
+    private record Snapshot(List<Ranked> global, Map<Integer, List<Ranked>> byCategory) {
+    }
+
+    @Override
+    public void record(int postId, Event event) {
+        Integer categoryId;
+        synchronized (this) {
+            categoryId = this.categoryOf.get(postId);
+        }
+        if (categoryId == null) {
+            // first event of the post since it was last ranked
+            categoryId = findCategoryId(postId);
+            if (categoryId == null) {
+                return;
+            }
+        }
+        synchronized (this) {
+            add(postId, categoryId, weight(event) * growth(System.currentTimeMillis()));
+        }
+    }
+
+    @Override
+    public synchronized void movePost(int postId, int categoryId) {
+        Integer previous = this.categoryOf.get(postId);
+        if (previous == null || previous == categoryId) {
+            return;
+        }
+        double score = removeFrom(previous, postId);
+        this.byCategory.computeIfAbsent(categoryId, id -> new TrendingHeap()).add(postId, score);
+        this.categoryOf.put(postId, categoryId);
+        this.dirty.add(postId);
+    }
+
+    @Override
+    public synchronized void removePost(int postId) {
+        Integer categoryId = this.categoryOf.remove(postId);
+        if (categoryId == null) {
+            return;
+        }
+        this.global.remove(postId);
+        removeFrom(categoryId, postId);
+        this.dirty.remove(postId);
+        this.removed.add(postId);
+    }
+
+    @Override
+    public List<TrendingPostDTO> getTrending(Integer categoryId, int limit) {
+        if (limit < 1 || limit > this.snapshotSize) {
+            throw new BadRequestException("limit must be between 1 and " + this.snapshotSize);
+        }
+        Snapshot current = this.snapshot;
+        List<Ranked> ranked = categoryId == null
+                ? current.global()
+                : current.byCategory().getOrDefault(categoryId, List.of());
+        List<Ranked> top = ranked.subList(0, Math.min(limit, ranked.size()));
+        if (top.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, PostSummaryDTO> posts = new HashMap<>();
+        this.postDao.findSummaryByPostIdIn(top.stream().map(Ranked::postId).toList())
+                .forEach(post -> posts.put(post.getPostId(), this.postMapper.toSummary(post)));
+        List<TrendingPostDTO> trending = new ArrayList<>(top.size());
+        for (Ranked entry : top) {
+            PostSummaryDTO post = posts.get(entry.postId());
+            // deleted since the snapshot was taken
+            if (post != null) {
+                trending.add(new TrendingPostDTO(trending.size() + 1, entry.score(), post));
+            }
+        }
+        return trending;
+    }
+
+    @Scheduled(fixedDelayString = "${trending.refresh-interval:5000}")
+    public void refreshSnapshot() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (now - this.landmark > MAX_HALF_LIVES * this.halfLife.toMillis()) {
+                moveLandmark(now);
+            }
+            double decay = 1 / growth(now);
+            List<Ranked> global = decayed(this.global.top(this.snapshotSize), decay);
+            Map<Integer, List<Ranked>> byCategory = new HashMap<>();
+            this.byCategory.forEach((categoryId, heap) ->
+                    byCategory.put(categoryId, decayed(heap.top(this.snapshotSize), decay)));
+            this.snapshot = new Snapshot(global, byCategory);
+        }
+    }
+
+    //writes the scores that changed since the last checkpoint, decayed to now, and drops removed posts
+    @Scheduled(fixedDelayString = "${trending.checkpoint-interval:60000}",
+            initialDelayString = "${trending.checkpoint-interval:60000}")
+    public void checkpoint() {
+        Date now = new Date();
+        List<TrendingScore> changed = new ArrayList<>();
+        List<Integer> gone;
+        synchronized (this) {
+            double decay = 1 / growth(now.getTime());
+            for (int postId : this.dirty) {
+                changed.add(new TrendingScore(postId, this.categoryOf.get(postId), this.global.score(postId) * decay, now));
+            }
+            gone = new ArrayList<>(this.removed);
+            this.dirty.clear();
+            this.removed.clear();
+        }
+        try {
+            write(changed);
+            if (!gone.isEmpty()) {
+                this.mongoTemplate.remove(new Query(Criteria.where("_id").in(gone)), TrendingScore.class);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Trending checkpoint failed: {}", e.getMessage());
+            synchronized (this) {
+                // retried with the next checkpoint, unless the post changed state in between
+                changed.stream().map(TrendingScore::getPostId).filter(this.categoryOf::containsKey).forEach(this.dirty::add);
+                gone.stream().filter(postId -> !this.categoryOf.containsKey(postId)).forEach(this.removed::add);
+            }
+        }
+    }
+
+    //scores are decayed from their checkpoint to now; events recorded before this ran are kept
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCheckpoint() {
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        try (Stream<TrendingScore> scores = this.mongoTemplate.stream(new Query(), TrendingScore.class)) {
+            for (TrendingScore checkpointed : (Iterable<TrendingScore>) scores::iterator) {
+                double score = checkpointed.getScore() * decaySince(checkpointed.getCheckpointAt(), now);
+                int postId = checkpointed.getPostId();
+                synchronized (this) {
+                    if (score < MIN_SCORE) {
+                        this.removed.add(postId);
+                        continue;
+                    }
+                    boolean changed = this.dirty.contains(postId);
+                    add(postId, checkpointed.getCategoryId(), score * growth(now));
+                    if (!changed) {
+                        this.dirty.remove(postId);
+                    }
+                }
+                loaded++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Loading trending scores failed: {}", e.getMessage());
+        }
+        refreshSnapshot();
+        log.info("Loaded trending scores of {} posts", loaded);
+    }
+
+    private void add(int postId, int categoryId, double forwardScore) {
+        Integer known = this.categoryOf.putIfAbsent(postId, categoryId);
+        int category = known != null ? known : categoryId;
+        this.global.add(postId, forwardScore);
+        this.byCategory.computeIfAbsent(category, id -> new TrendingHeap()).add(postId, forwardScore);
+        this.dirty.add(postId);
+        this.removed.remove(postId);
+    }
+
+    private double removeFrom(int categoryId, int postId) {
+        TrendingHeap heap = this.byCategory.get(categoryId);
+        if (heap == null) {
+            return 0;
+        }
+        double score = heap.remove(postId);
+        if (heap.size() == 0) {
+            this.byCategory.remove(categoryId);
+        }
+        return score;
+    }
+
+    //rescales every score to the new landmark, where stored and current scores are equal,
+    //and drops the posts that decayed below MIN_SCORE
+    private void moveLandmark(long now) {
+        double factor = 1 / growth(now);
+        this.global.scale(factor);
+        this.byCategory.values().forEach(heap -> heap.scale(factor));
+        this.landmark = now;
+        for (int postId : this.global.below(MIN_SCORE)) {
+            removePost(postId);
+        }
+    }
+
+    //2^((at - landmark) / half-life): what an event at `at` weighs relative to one at the landmark
+    private double growth(long at) {
+        return Math.pow(2, (at - this.landmark) / (double) this.halfLife.toMillis());
+    }
+
+    private double decaySince(Date since, long now) {
+        long elapsed = since != null ? Math.max(0, now - since.getTime()) : 0;
+        return Math.pow(2, -elapsed / (double) this.halfLife.toMillis());
+    }
+
+    private double weight(Event event) {
+        return switch (event) {
+            case VIEW -> this.viewWeight;
+            case LIKE -> this.likeWeight;
+            case DISLIKE -> this.dislikeWeight;
+            case COMMENT -> this.commentWeight;
+        };
+    }
+
+    //posts that drew more dislikes than anything else are ranked, but never listed as trending
+    private static List<Ranked> decayed(List<Ranked> ranked, double decay) {
+        return ranked.stream()
+                .filter(entry -> entry.score() > 0)
+                .map(entry -> new Ranked(entry.postId(), entry.score() * decay))
+                .toList();
+    }
+
+    private Integer findCategoryId(int postId) {
+        Query query = new Query(Criteria.where("_id").is(postId));
+        query.fields().include("categoryId");
+        Document post = this.mongoTemplate.findOne(query, Document.class, this.mongoTemplate.getCollectionName(Post.class));
+        return post != null ? post.getInteger("categoryId", 0) : null;
+    }
+
+    private void write(List<TrendingScore> scores) {
+        BulkOperations bulk = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrendingScore.class);
+        int pending = 0;
+        for (TrendingScore score : scores) {
+            bulk.upsert(new Query(Criteria.where("_id").is(score.getPostId())), new Update()
+                    .set("categoryId", score.getCategoryId())
+                    .set("score", score.getScore())
+                    .set("checkpointAt", score.getCheckpointAt()));
+            if (++pending == BATCH_SIZE) {
+                bulk.execute();
+                bulk = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrendingScore.class);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+}
@@ -5,8 +5,15 @@ import java.util.List;
 
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +25,8 @@ import com.blogrestapi.Entity.Role;
 import com.blogrestapi.Entity.User;
 import com.blogrestapi.Exception.AlreadyExistsException;
 import com.blogrestapi.Exception.ResourceNotFoundException;
+import com.blogrestapi.Mapper.UserMapper;
+import com.blogrestapi.Service.FileService;
 import com.blogrestapi.Service.UserService;
 
 @Service
@@ -25,23 +34,31 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserDao userDao;
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
     @Autowired
     private SequenceGeneratorService sequence;
     @Autowired
     BCryptPasswordEncoder encoder;
     @Autowired
     private RoleDao roleDao;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private FileService fileService;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Value("${project.users.image}")
+    private String imagePath;
     @Override
     public List<UserDTO> getUsers() {
         return this.userDao.findAll().stream()
-         .map(user->modelMapper.map(user, UserDTO.class))
+         .map(user->userMapper.toDTO(user))
         .collect(Collectors.toList());
     }
 
     @Override
     public UserDTO getUserById(int id) {
-        return this.userDao.findById(id).map(user->modelMapper.map(user,UserDTO.class))
+        return this.userDao.findById(id).map(user->userMapper.toDTO(user))
         .orElseThrow(()->new ResourceNotFoundException("User not found with id: "+id));
     }
 
@@ -65,14 +82,16 @@ public class UserServiceImpl implements UserService {
         }
       
         userDTO.setPassword(encoder.encode(userDTO.getPassword())); 
-        User user=modelMapper.map(userDTO, User.class);
+        User user=userMapper.toEntity(userDTO);
+        user.setPostCount(0);
         User savedUser=this.userDao.save(user);
-        return modelMapper.map(savedUser,UserDTO.class);
+        return userMapper.toDTO(savedUser);
     }
 
     @Override
     public UserDTO updateUserById(int id, UserDTO userDTO) {
         User user=this.userDao.findById(id).orElseThrow(()->new ResourceNotFoundException("User not found with id: "+id)); 
+        String previousUsername=user.getUsername();
         if (!user.getUsername().equals(userDTO.getUsername()) && this.userDao.existsByUsername(userDTO.getUsername())  ) {
             throw new AlreadyExistsException("Username is already used");
         }
@@ -83,8 +102,10 @@ public class UserServiceImpl implements UserService {
             Role role=new Role(2,"ROLE_USER");
             user.setRole(role);
         }
+       String previousImage=user.getImage();
        if(userDTO.getImage() != null && !userDTO.getImage().isEmpty() ){
            user.setImage(userDTO.getImage());
+           user.setImageVariants(this.fileService.variantNames(userDTO.getImage()));
        }else{
           user.setImage(user.getImage());
        }
@@ -104,22 +125,52 @@ public class UserServiceImpl implements UserService {
             user.setDescription(userDTO.getDescription());
         }
        user.setEnable(true);
-      User updateduser= this.userDao.save(user);
-      return modelMapper.map(updateduser, UserDTO.class);
+      // only the edited fields are written: postCount is maintained by $inc and must not be overwritten
+      Update update=new Update()
+              .set("username", user.getUsername())
+              .set("email", user.getEmail())
+              .set("password", user.getPassword())
+              .set("image", user.getImage())
+              .set("imageVariants", user.getImageVariants())
+              .set("phoneNumber", user.getPhoneNumber())
+              .set("description", user.getDescription())
+              .set("isEnable", user.isEnable())
+              .set("role", user.getRole());
+      User updateduser=this.mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+              FindAndModifyOptions.options().returnNew(true), User.class);
+      if(updateduser == null){
+          throw new ResourceNotFoundException("User not found with id: "+id);
+      }
+      // a new upload took its own reference, even when it has the same bytes as the old image
+      if(userDTO.getImage() != null && !userDTO.getImage().isEmpty()){
+          this.fileService.releaseFile(this.imagePath, previousImage);
+      }
+      // the cached principal carries username/role/enabled, under the old and possibly a new name
+      evictAuthPrincipal(previousUsername);
+      evictAuthPrincipal(updateduser.getUsername());
+      return userMapper.toDTO(updateduser);
 
     }
 
     @Override
     public void deleteUserById(int id) {
-        if (!this.userDao.existsById(id)) {
-            throw new ResourceNotFoundException("User not found by id: "+id);
-        }
+        User user=this.userDao.findUsernameById(id)
+                .orElseThrow(()->new ResourceNotFoundException("User not found by id: "+id));
        this.userDao.deleteById(id);
+       evictAuthPrincipal(user.getUsername());
+       this.fileService.releaseFile(this.imagePath, user.getImage());
+    }
+
+    private void evictAuthPrincipal(String username) {
+        Cache cache=this.cacheManager.getCache(AppConstant.CACHE_AUTH_PRINCIPAL);
+        if (cache != null && username != null) {
+            cache.evict(username);
+        }
     }
 
     @Override
     public UserDTO registerNewUser(UserDTO userDTO) {
-        User user=this.modelMapper.map(userDTO, User.class);
+        User user=this.userMapper.toEntity(userDTO);
         if (this.userDao.existsByUsername(user.getUsername())) {
             throw new AlreadyExistsException("Username is already used");
         }
@@ -130,17 +181,19 @@ public class UserServiceImpl implements UserService {
             user.setImage("default.jpg");
         }else {
             user.setImage(user.getImage());
+            user.setImageVariants(this.fileService.variantNames(user.getImage()));
         }
         user.setId((int)this.sequence.generateSequence("user_sequence"));
         user.setPassword(this.encoder.encode(user.getPassword()));
         user.setEnable(true);
+        user.setPostCount(0);
 
         Role role=this.roleDao.findById(AppConstant.NORMAL_USER).orElseThrow(()->
             new ResourceNotFoundException("The role not found  with id: "+AppConstant.NORMAL_USER)
          );
          user.setRole(role);
          User saveUser=this.userDao.save(user);
-       return modelMapper.map(saveUser, UserDTO.class);
+       return userMapper.toDTO(saveUser);
     }
    
    
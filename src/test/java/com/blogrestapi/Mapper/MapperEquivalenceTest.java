@@ -0,0 +1,195 @@
+package com.blogrestapi.Mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import com.blogrestapi.DTO.CategoryDTO;
+import com.blogrestapi.DTO.CommentDTO;
+import com.blogrestapi.DTO.DisLikeDTO;
+import com.blogrestapi.DTO.LikeDTO;
+import com.blogrestapi.DTO.PostDTO;
+import com.blogrestapi.DTO.UserDTO;
+import com.blogrestapi.Entity.Category;
+import com.blogrestapi.Entity.Comment;
+import com.blogrestapi.Entity.DisLike;
+import com.blogrestapi.Entity.Like;
+import com.blogrestapi.Entity.Post;
+import com.blogrestapi.Entity.Role;
+import com.blogrestapi.Entity.User;
+
+//the hand-written mappers must produce what the ModelMapper bean they replaced produced.
+//referenceMapper() is that bean's configuration, unchanged.
+class MapperEquivalenceTest {
+    private final ModelMapper modelMapper = referenceMapper();
+    private final PostMapper postMapper = new PostMapper();
+    private final CommentMapper commentMapper = new CommentMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+    private final ReactionMapper reactionMapper = new ReactionMapper();
+
+    @Test
+    void postToDTO() {
+        Post post = post();
+        assertEquals(modelMapper.map(post, PostDTO.class), postMapper.toDTO(post));
+        post.setImageVariants(null);
+        assertEquals(modelMapper.map(post, PostDTO.class), postMapper.toDTO(post));
+        assertEquals(modelMapper.map(new Post(), PostDTO.class), postMapper.toDTO(new Post()));
+    }
+
+    @Test
+    void postToEntity() {
+        PostDTO dto = postMapper.toDTO(post());
+        Post post = postMapper.toEntity(dto);
+        assertEquals(modelMapper.map(dto, Post.class), post);
+        assertNotSame(dto.getImageVariants(), post.getImageVariants());
+        assertEquals(modelMapper.map(new PostDTO(), Post.class), postMapper.toEntity(new PostDTO()));
+    }
+
+    @Test
+    void commentToDTO() {
+        Comment comment = comment("nice post");
+        assertEquals(modelMapper.map(comment, CommentDTO.class), commentMapper.toDTO(comment));
+    }
+
+    @Test
+    void commentToEntity() {
+        CommentDTO dto = commentDTO();
+        assertEquals(modelMapper.map(dto, Comment.class), commentMapper.toEntity(dto));
+    }
+
+    @Test
+    void commentUpdate() {
+        CommentDTO dto = commentDTO();
+        Comment expected = comment("old");
+        Comment actual = comment("old");
+        modelMapper.map(dto, expected);
+        commentMapper.update(dto, actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void userToDTO() {
+        User user = user();
+        assertEquals(modelMapper.map(user, UserDTO.class), userMapper.toDTO(user));
+        assertEquals(modelMapper.map(new User(), UserDTO.class), userMapper.toDTO(new User()));
+    }
+
+    @Test
+    void userToEntity() {
+        UserDTO dto = userMapper.toDTO(user());
+        assertEquals(modelMapper.map(dto, User.class), userMapper.toEntity(dto));
+        dto.setId(null);
+        assertEquals(modelMapper.map(dto, User.class), userMapper.toEntity(dto));
+    }
+
+    @Test
+    void category() {
+        Category category = new Category(3, "Travel", 7);
+        assertEquals(modelMapper.map(category, CategoryDTO.class), categoryMapper.toDTO(category));
+        CategoryDTO dto = new CategoryDTO(3, "Travel", 7);
+        assertEquals(modelMapper.map(dto, Category.class), categoryMapper.toEntity(dto));
+    }
+
+    @Test
+    void reactions() {
+        Like like = new Like(9, user(), post());
+        assertEquals(modelMapper.map(like, LikeDTO.class), reactionMapper.toDTO(like));
+        DisLike disLike = new DisLike(10, user(), post());
+        assertEquals(modelMapper.map(disLike, DisLikeDTO.class), reactionMapper.toDTO(disLike));
+    }
+
+    private static Post post() {
+        Post post = new Post();
+        post.setPostId(1);
+        post.setPostTitle("A title");
+        post.setContent("Some content for the post");
+        post.setImage("abc.png");
+        Map<String, String> variants = new LinkedHashMap<>();
+        variants.put("thumb", "abc_thumb.png");
+        post.setImageVariants(variants);
+        // fixed, so two fixtures built a millisecond apart are still equal
+        post.setPostDate(new Date(1_700_000_000_000L));
+        post.setUser(user());
+        post.setUserId(2);
+        Category category = new Category();
+        category.setCategoryId(3);
+        post.setCategory(category);
+        post.setCategoryId(3);
+        post.setLikeCount(4);
+        post.setDislikeCount(1);
+        post.setCommentCount(2);
+        return post;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(2);
+        user.setUsername("writer");
+        user.setEmail("writer@example.com");
+        user.setPassword("secret");
+        user.setImage("me.png");
+        user.setPhoneNumber("9800000000");
+        user.setDescription("writes things");
+        user.setEnable(true);
+        user.setPostCount(3);
+        user.setRole(new Role(1, "ROLE_USER"));
+        return user;
+    }
+
+    private static Comment comment(String text) {
+        Comment comment = new Comment();
+        comment.setCommentId(5);
+        comment.setComments(text);
+        comment.setPost(post());
+        comment.setUser(user());
+        comment.setPostId(1);
+        comment.setUserId(2);
+        return comment;
+    }
+
+    private static CommentDTO commentDTO() {
+        CommentDTO dto = new CommentDTO();
+        dto.setId(5);
+        dto.setComments("edited");
+        dto.setPostId(1);
+        dto.setUserId(2);
+        return dto;
+    }
+
+    private static ModelMapper referenceMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.emptyTypeMap(Post.class, PostDTO.class)
+                .addMappings(mapper -> {
+                    mapper.map(Post::getUserId, PostDTO::setUserId);
+                    mapper.map(Post::getCategoryId, PostDTO::setCategoryId);
+                })
+                .implicitMappings();
+        modelMapper.emptyTypeMap(Comment.class, CommentDTO.class)
+                .addMappings(mapper -> {
+                    mapper.map(Comment::getCommentId, CommentDTO::setId);
+                    mapper.map(src -> src.getPost().getPostId(), CommentDTO::setPostId);
+                    mapper.map(src -> src.getUser().getId(), CommentDTO::setUserId);
+                })
+                .implicitMappings();
+        modelMapper.emptyTypeMap(Like.class, LikeDTO.class)
+                .addMappings(mapper -> {
+                    mapper.map(src -> src.getPost().getPostId(), LikeDTO::setPostId);
+                    mapper.map(src -> src.getUser().getId(), LikeDTO::setUserId);
+                })
+                .implicitMappings();
+        modelMapper.emptyTypeMap(DisLike.class, DisLikeDTO.class)
+                .addMappings(mapper -> {
+                    mapper.map(src -> src.getPost().getPostId(), DisLikeDTO::setPostId);
+                    mapper.map(src -> src.getUser().getId(), DisLikeDTO::setUserId);
+                })
+                .implicitMappings();
+        return modelMapper;
+    }
+}
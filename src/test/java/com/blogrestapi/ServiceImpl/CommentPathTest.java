@@ -0,0 +1,121 @@
+package com.blogrestapi.ServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+//a random comment tree, checked against its parent links: path order is depth-first thread order,
+//and the exclusive (path + "/", path + "0") range plus a depth bound is exactly a subtree
+class CommentPathTest {
+    private record Node(int id, int parentId, int depth, String path) {
+    }
+
+    @Test
+    void sortedPathsListThreadsDepthFirst() {
+        Map<Integer, Node> tree = randomTree(new Random(42), 2000);
+        List<Node> sorted = tree.values().stream().sorted((a, b) -> a.path().compareTo(b.path())).toList();
+        List<Node> expected = new ArrayList<>();
+        Map<Integer, List<Node>> children = children(tree);
+        children.getOrDefault(0, List.of()).forEach(root -> depthFirst(root, children, expected));
+        assertEquals(expected, sorted);
+    }
+
+    @Test
+    void childSortsAfterParentAndBeforeNextSibling() {
+        String parent = CommentPath.of(null, 9);
+        String child = CommentPath.of(parent, 12345);
+        String sibling = CommentPath.of(null, 10);
+        assertTrue(parent.compareTo(child) < 0);
+        assertTrue(child.compareTo(sibling) < 0);
+        // without padding "10" would sort before "9"
+        assertTrue(CommentPath.of(null, 9).compareTo(CommentPath.of(null, 10)) < 0);
+        assertEquals("0000000009/0000012345", child);
+    }
+
+    @Test
+    void rangeHoldsExactlyTheSubtree() {
+        Map<Integer, Node> tree = randomTree(new Random(7), 2000);
+        Map<Integer, List<Node>> children = children(tree);
+        for (Node node : tree.values()) {
+            List<Node> expected = new ArrayList<>();
+            children.getOrDefault(node.id(), List.of()).forEach(child -> depthFirst(child, children, expected));
+            assertEquals(expected, inRange(tree, node, Integer.MAX_VALUE), "subtree of " + node.path());
+        }
+    }
+
+    @Test
+    void boundsAreExclusive() {
+        String path = CommentPath.of(null, 5);
+        String from = CommentPath.descendantsFrom(path);
+        String to = CommentPath.descendantsTo(path);
+        // the comment itself and its next sibling fall outside, its first possible child inside
+        assertTrue(path.compareTo(from) < 0);
+        assertTrue(CommentPath.of(null, 6).compareTo(to) > 0);
+        assertTrue(CommentPath.of(path, 0).compareTo(from) > 0 && CommentPath.of(path, 0).compareTo(to) < 0);
+        assertTrue(CommentPath.of(path, Integer.MAX_VALUE).compareTo(to) < 0);
+    }
+
+    @Test
+    void depthFilterStopsAtMaxDepth() {
+        Map<Integer, Node> tree = randomTree(new Random(3), 2000);
+        Map<Integer, List<Node>> children = children(tree);
+        for (int maxDepth = 1; maxDepth <= 4; maxDepth++) {
+            for (Node node : tree.values()) {
+                List<Node> expected = new ArrayList<>();
+                int limit = node.depth() + maxDepth;
+                children.getOrDefault(node.id(), List.of()).forEach(child -> depthFirst(child, children, expected));
+                expected.removeIf(descendant -> descendant.depth() > limit);
+                assertEquals(expected, inRange(tree, node, maxDepth));
+            }
+        }
+    }
+
+    //the filter getReplies runs: path strictly inside the subtree range, depth at most maxDepth below
+    private static List<Node> inRange(Map<Integer, Node> tree, Node node, int maxDepth) {
+        String from = CommentPath.descendantsFrom(node.path());
+        String to = CommentPath.descendantsTo(node.path());
+        long limit = (long) node.depth() + maxDepth;
+        return tree.values().stream()
+                .filter(other -> other.path().compareTo(from) > 0 && other.path().compareTo(to) < 0)
+                .filter(other -> other.depth() <= limit)
+                .sorted((a, b) -> a.path().compareTo(b.path()))
+                .toList();
+    }
+
+    //ids are handed out in order, as by the comment sequence, but replies land anywhere in the tree
+    private static Map<Integer, Node> randomTree(Random random, int size) {
+        Map<Integer, Node> tree = new HashMap<>();
+        List<Node> nodes = new ArrayList<>();
+        for (int id = 1; id <= size; id++) {
+            Node node;
+            if (nodes.isEmpty() || random.nextInt(5) == 0) {
+                node = new Node(id, 0, 0, CommentPath.of(null, id));
+            } else {
+                Node parent = nodes.get(random.nextInt(nodes.size()));
+                node = new Node(id, parent.id(), parent.depth() + 1, CommentPath.of(parent.path(), id));
+            }
+            nodes.add(node);
+            tree.put(id, node);
+        }
+        return tree;
+    }
+
+    private static Map<Integer, List<Node>> children(Map<Integer, Node> tree) {
+        Map<Integer, List<Node>> children = new HashMap<>();
+        tree.values().stream().sorted((a, b) -> Integer.compare(a.id(), b.id()))
+                .forEach(node -> children.computeIfAbsent(node.parentId(), parent -> new ArrayList<>()).add(node));
+        return children;
+    }
+
+    private static void depthFirst(Node node, Map<Integer, List<Node>> children, List<Node> out) {
+        out.add(node);
+        children.getOrDefault(node.id(), List.of()).forEach(child -> depthFirst(child, children, out));
+    }
+}
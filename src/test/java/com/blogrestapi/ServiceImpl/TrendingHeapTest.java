@@ -0,0 +1,55 @@
+package com.blogrestapi.ServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+//random adds (of both signs), removals and rescales, checked against scores kept in a plain map
+class TrendingHeapTest {
+
+    @Test
+    void topMatchesSortedScores() {
+        TrendingHeap heap = new TrendingHeap();
+        Map<Integer, Double> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int postId = random.nextInt(300);
+            int op = random.nextInt(10);
+            if (op == 0) {
+                assertEquals(expected.getOrDefault(postId, 0.0), heap.remove(postId));
+                expected.remove(postId);
+            } else if (op == 1 && i % 100 == 0) {
+                heap.scale(0.5);
+                expected.replaceAll((id, score) -> score * 0.5);
+            } else {
+                double delta = random.nextInt(11) - 3;
+                heap.add(postId, delta);
+                expected.merge(postId, delta, Double::sum);
+            }
+        }
+        assertEquals(expected.size(), heap.size());
+        List<Double> sorted = expected.values().stream().sorted(Comparator.reverseOrder()).limit(25).toList();
+        List<TrendingHeap.Ranked> top = heap.top(25);
+        assertEquals(sorted, top.stream().map(TrendingHeap.Ranked::score).toList());
+        top.forEach(entry -> assertEquals(expected.get(entry.postId()), entry.score()));
+    }
+
+    @Test
+    void removedPostsAreGone() {
+        TrendingHeap heap = new TrendingHeap();
+        heap.add(1, 5);
+        heap.add(2, 3);
+        heap.add(3, 9);
+        heap.remove(3);
+        assertFalse(heap.contains(3));
+        assertEquals(List.of(new TrendingHeap.Ranked(1, 5), new TrendingHeap.Ranked(2, 3)), heap.top(10));
+        assertEquals(List.of(2), heap.below(4));
+    }
+}